@@ -0,0 +1,72 @@
+package com.financeapp.personalfinance.benchmarks;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory balance arithmetic on the Account entity: exact long arithmetic on minor units (directly or
+ * through Money) plus the LocalDateTime.now() timestamp taken on every successful credit or debit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+    private static final long AMOUNT = 1234;
+    private static final Money MONEY_AMOUNT = Money.ofMinor(AMOUNT, Money.DEFAULT_CURRENCY);
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = new Account("Benchmark", "BENCH-1", Account.AccountType.CHECKING, 1L);
+        // Large enough that debits never run out during a run
+        account.setBalance(Money.of(new BigDecimal("1000000000000.00"), Money.DEFAULT_CURRENCY));
+    }
+
+    @Benchmark
+    public Account credit() {
+        account.credit(AMOUNT);
+        return account;
+    }
+
+    @Benchmark
+    public boolean debit() {
+        return account.debit(AMOUNT);
+    }
+
+    @Benchmark
+    public boolean creditThenDebit() {
+        account.credit(AMOUNT);
+        return account.debit(AMOUNT);
+    }
+
+    @Benchmark
+    public boolean creditThenDebitMoney() {
+        account.credit(MONEY_AMOUNT);
+        return account.debit(MONEY_AMOUNT);
+    }
+
+    // Share of credit/debit spent on the timestamp alone
+    @Benchmark
+    public LocalDateTime timestamp() {
+        return LocalDateTime.now();
+    }
+}
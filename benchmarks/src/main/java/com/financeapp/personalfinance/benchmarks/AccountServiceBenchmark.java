@@ -0,0 +1,125 @@
+package com.financeapp.personalfinance.benchmarks;
+
+import com.financeapp.personalfinance.PersonalFinanceApiApplication;
+import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService calls through the full Spring context (transactions, caches, summary maintenance)
+ * against an in-memory H2 database in PostgreSQL mode, configured like the test profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private Long userId;
+    private Long firstAccountId;
+    private Long secondAccountId;
+    private long transfers;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PersonalFinanceApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they take precedence over the bundled application.properties
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmarks;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.financeapp.personalfinance=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        accountService = context.getBean(AccountService.class);
+
+        User user = context.getBean(UserService.class)
+                .createUser(new User("Bench", "Marker", "bench@benchmarks.test", null));
+        userId = user.getId();
+        firstAccountId = createAccount("BENCH-1");
+        secondAccountId = createAccount("BENCH-2");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> getAccountById() {
+        return accountService.getAccountById(firstAccountId);
+    }
+
+    @Benchmark
+    public Account creditAccount() {
+        return accountService.creditAccount(firstAccountId, AMOUNT);
+    }
+
+    @Benchmark
+    public Account debitAccount() {
+        return accountService.debitAccount(secondAccountId, AMOUNT);
+    }
+
+    // Alternate the direction so both balances stay roughly where they started
+    @Benchmark
+    public long transferBetweenAccounts() {
+        if (transfers++ % 2 == 0) {
+            accountService.transferBetweenAccounts(firstAccountId, secondAccountId, AMOUNT);
+        } else {
+            accountService.transferBetweenAccounts(secondAccountId, firstAccountId, AMOUNT);
+        }
+        return transfers;
+    }
+
+    @Benchmark
+    public BigDecimal getTotalBalanceByUserId() {
+        return accountService.getTotalBalanceByUserId(userId);
+    }
+
+    @Benchmark
+    public AccountSummaryDto getAccountSummary() {
+        return accountService.getAccountSummary(userId);
+    }
+
+    private Long createAccount(String accountNumber) {
+        Account account = new Account("Benchmark " + accountNumber, accountNumber, Account.AccountType.CHECKING, userId);
+        account.setBalance(Money.of(new BigDecimal("1000000000.00"), Money.DEFAULT_CURRENCY));
+        return accountService.createAccount(account).getId();
+    }
+}
@@ -0,0 +1,76 @@
+package com.financeapp.personalfinance.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the response bodies, with an ObjectMapper built the way Spring Boot builds
+ * the one used by the controllers (Jackson2ObjectMapperBuilder: java.time support, no timestamps).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Account account;
+    private AccountSummaryDto summary;
+    private String accountJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        account = new Account("Everyday Checking", "CHK-0001-2345", Account.AccountType.CHECKING, 42L);
+        account.setId(1234L);
+        account.setBalance(Money.of(new BigDecimal("15234.56"), Money.DEFAULT_CURRENCY));
+        account.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        account.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 17, 45, 12));
+
+        summary = new AccountSummaryDto(3L, new BigDecimal("45703.68"), new BigDecimal("15234.56"),
+                new BigDecimal("30000.00"), new BigDecimal("469.12"));
+
+        accountJson = objectMapper.writeValueAsString(account);
+    }
+
+    @Benchmark
+    public String serializeAccount() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(account);
+    }
+
+    @Benchmark
+    public byte[] serializeAccountToBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public String serializeAccountSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(summary);
+    }
+
+    @Benchmark
+    public Account deserializeAccount() throws JsonProcessingException {
+        return objectMapper.readValue(accountJson, Account.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.financeapp.personalfinance.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Users and accounts created through the API before the run, which the operations pick from at random
+ */
+final class Fixture {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda",
+            "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica"
+    };
+    private static final String[] ACCOUNT_TYPES = {"CHECKING", "SAVINGS", "INVESTMENT"};
+
+    // Large enough that debits and transfers never run an account dry during a run
+    private static final String OPENING_BALANCE = "1000000.00";
+
+    record SeededAccount(long id, String accountNumber, long userId) {
+    }
+
+    private final List<Long> userIds;
+    private final List<SeededAccount> accounts;
+
+    private Fixture(List<Long> userIds, List<SeededAccount> accounts) {
+        this.userIds = userIds;
+        this.accounts = accounts;
+    }
+
+    static Fixture seed(ApiClient api, int users, int accountsPerUser) throws IOException, InterruptedException {
+        // Unique per run, so a shared database can be seeded again
+        String runTag = Long.toString(System.currentTimeMillis(), 36);
+        List<Long> userIds = new ArrayList<>(users);
+        List<SeededAccount> accounts = new ArrayList<>(users * accountsPerUser);
+
+        for (int u = 0; u < users; u++) {
+            String firstName = FIRST_NAMES[u % FIRST_NAMES.length];
+            long userId = api.sendForJson(api.post("/users", String.format(
+                    "{\"firstName\":\"%s\",\"lastName\":\"Load%d\",\"email\":\"load.%s.%d@loadtest.example\"}",
+                    firstName, u, runTag, u))).get("id").asLong();
+            userIds.add(userId);
+
+            for (int a = 0; a < accountsPerUser; a++) {
+                String accountNumber = "LT-" + runTag + "-" + u + "-" + a;
+                long accountId = api.sendForJson(api.post("/accounts", String.format(
+                        "{\"accountName\":\"Load test %d\",\"accountNumber\":\"%s\",\"accountType\":\"%s\","
+                                + "\"userId\":%d,\"balance\":%s,\"currency\":\"USD\"}",
+                        a, accountNumber, ACCOUNT_TYPES[a % ACCOUNT_TYPES.length], userId, OPENING_BALANCE)))
+                        .get("id").asLong();
+                accounts.add(new SeededAccount(accountId, accountNumber, userId));
+            }
+        }
+        return new Fixture(List.copyOf(userIds), List.copyOf(accounts));
+    }
+
+    long randomUserId(RandomGenerator random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    SeededAccount randomAccount(RandomGenerator random) {
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    /**
+     * A prefix of one of the seeded first names, as a user would type it into the search box
+     */
+    String randomSearchTerm(RandomGenerator random) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        return firstName.substring(0, 2 + random.nextInt(firstName.length() - 1));
+    }
+
+    int accountCount() {
+        return accounts.size();
+    }
+
+    int userCount() {
+        return userIds.size();
+    }
+}
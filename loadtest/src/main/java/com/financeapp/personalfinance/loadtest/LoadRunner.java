@@ -0,0 +1,110 @@
+package com.financeapp.personalfinance.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Drives the weighted operation mix from a fixed number of worker threads for a given duration
+ */
+final class LoadRunner {
+
+    private final ApiClient api;
+    private final Fixture fixture;
+    private final int concurrency;
+    private final double rate;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadRunner(ApiClient api, Fixture fixture, LoadTestConfig config) {
+        this.api = api;
+        this.fixture = fixture;
+        this.concurrency = config.getConcurrency();
+        this.rate = config.getRate();
+
+        Map<Operation, Integer> mix = config.getMix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Results run(Duration duration) throws InterruptedException {
+        Results results = new Results(EnumSet.copyOf(Arrays.asList(operations)));
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // With a target rate each worker sends on its own fixed schedule, staggered against the others
+        long intervalNanos = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long firstDue = start + intervalNanos * i / concurrency;
+            workers.execute(() -> work(results, firstDue, end, intervalNanos));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        results.setElapsed(System.nanoTime() - start);
+        return results;
+    }
+
+    private void work(Results results, long firstDue, long end, long intervalNanos) {
+        RandomGenerator random = ThreadLocalRandom.current();
+        long due = firstDue;
+        while (true) {
+            long sentAt;
+            if (intervalNanos > 0) {
+                if (due >= end) {
+                    return;
+                }
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Measure from when the request was due, not from when a late worker got round to it
+                sentAt = due;
+                due += intervalNanos;
+            } else {
+                sentAt = System.nanoTime();
+                if (sentAt >= end) {
+                    return;
+                }
+            }
+
+            Operation operation = pick(random);
+            boolean success;
+            try {
+                int status = api.send(operation.request(api, fixture, random));
+                success = status / 100 == 2;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            results.record(operation, System.nanoTime() - sentAt, success);
+        }
+    }
+
+    private Operation pick(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weight out of range: " + value);
+    }
+}
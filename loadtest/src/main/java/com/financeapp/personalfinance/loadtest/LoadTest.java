@@ -0,0 +1,100 @@
+package com.financeapp.personalfinance.loadtest;
+
+import com.financeapp.personalfinance.PersonalFinanceApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP load test of the /api/v1 accounts and users endpoints.
+ * <p>
+ * Seeds users and accounts through the API, runs the configured operation mix (a warmup whose results
+ * are discarded, then the measured run) and prints throughput and p50/p99/p99.9 latency per operation.
+ * Exits with status 1 when an operation is over one of its latency budgets or the error-rate limit.
+ * Without a base-url the application is started in-process on a random port with an in-memory H2
+ * database in PostgreSQL mode, configured like the test profile.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+
+        ConfigurableApplicationContext embedded = null;
+        List<String> violations;
+        try {
+            String baseUrl;
+            if (config.getBaseUrl().isPresent()) {
+                baseUrl = config.getBaseUrl().get();
+            } else {
+                embedded = startEmbedded();
+                int port = ((WebServerApplicationContext) embedded).getWebServer().getPort();
+                baseUrl = "http://localhost:" + port + "/api/v1";
+            }
+
+            ApiClient api = new ApiClient(baseUrl);
+            Fixture fixture = Fixture.seed(api, config.getUsers(), config.getAccountsPerUser());
+            System.out.printf("Target %s, %d users and %d accounts seeded, %d workers, %s%n", baseUrl,
+                    fixture.userCount(), fixture.accountCount(), config.getConcurrency(),
+                    config.getRate() > 0 ? config.getRate() + " req/s" : "closed loop");
+
+            LoadRunner runner = new LoadRunner(api, fixture, config);
+            if (!config.getWarmup().isZero()) {
+                System.out.println("Warming up for " + format(config.getWarmup()));
+                runner.run(config.getWarmup());
+            }
+            System.out.println("Measuring for " + format(config.getDuration()));
+            Results results = runner.run(config.getDuration());
+
+            results.print(System.out);
+            if (config.getReportDir().isPresent()) {
+                results.writeHistograms(Path.of(config.getReportDir().get()));
+            }
+            violations = results.checkBudgets(config);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("\nAll operations are within their budgets");
+        } else {
+            System.out.println("\nBudgets exceeded:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return new SpringApplicationBuilder(PersonalFinanceApiApplication.class)
+                // Command-line arguments, so they take precedence over the bundled application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.financeapp.personalfinance=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private static String format(Duration duration) {
+        return duration.toSeconds() + "s";
+    }
+}
@@ -0,0 +1,108 @@
+package com.financeapp.personalfinance.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Settings of a load-test run: the bundled loadtest.properties overridden by key=value arguments
+ */
+final class LoadTestConfig {
+
+    private final Properties properties;
+
+    private LoadTestConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    static LoadTestConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            properties.load(defaults);
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(arg.startsWith("--") ? 2 : 0, separator);
+            if (!properties.containsKey(key) && !key.startsWith("budget.")) {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+            properties.setProperty(key, arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(properties);
+    }
+
+    Optional<String> getBaseUrl() {
+        return Optional.of(value("base-url")).filter(url -> !url.isEmpty());
+    }
+
+    Duration getDuration() {
+        return DurationStyle.detectAndParse(value("duration"));
+    }
+
+    Duration getWarmup() {
+        return DurationStyle.detectAndParse(value("warmup"));
+    }
+
+    int getConcurrency() {
+        return Integer.parseInt(value("concurrency"));
+    }
+
+    double getRate() {
+        return Double.parseDouble(value("rate"));
+    }
+
+    int getUsers() {
+        return Integer.parseInt(value("users"));
+    }
+
+    int getAccountsPerUser() {
+        return Integer.parseInt(value("accounts-per-user"));
+    }
+
+    Optional<String> getReportDir() {
+        return Optional.of(value("report-dir")).filter(dir -> !dir.isEmpty());
+    }
+
+    double getMaxErrorRate() {
+        return Double.parseDouble(value("max-error-rate"));
+    }
+
+    /**
+     * Weight of each operation in the mix, leaving out operations with weight 0
+     */
+    Map<Operation, Integer> getMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            int weight = Integer.parseInt(properties.getProperty("mix." + operation.getName(), "0"));
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+
+    /**
+     * Latency budget of an operation at a percentile (p50, p99 or p999), if one is set
+     */
+    Optional<Duration> getBudget(Operation operation, String percentile) {
+        String budget = properties.getProperty("budget." + operation.getName() + "." + percentile,
+                properties.getProperty("budget.all." + percentile, ""));
+        return budget.isEmpty() ? Optional.empty() : Optional.of(DurationStyle.detectAndParse(budget));
+    }
+
+    private String value(String key) {
+        return properties.getProperty(key).trim();
+    }
+}
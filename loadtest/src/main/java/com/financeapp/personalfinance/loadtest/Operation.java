@@ -0,0 +1,99 @@
+package com.financeapp.personalfinance.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.random.RandomGenerator;
+
+/**
+ * The requests making up the workload, each against randomly picked seeded data
+ */
+enum Operation {
+
+    ACCOUNT_BY_ID("account-by-id") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/accounts/" + fixture.randomAccount(random).id());
+        }
+    },
+    ACCOUNT_BY_NUMBER("account-by-number") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/accounts/number/" + fixture.randomAccount(random).accountNumber());
+        }
+    },
+    USER_ACCOUNTS("user-accounts") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/accounts/user/" + fixture.randomUserId(random));
+        }
+    },
+    USER_SUMMARY("user-summary") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/accounts/user/" + fixture.randomUserId(random) + "/summary");
+        }
+    },
+    USER_TOTAL_BALANCE("user-total-balance") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/accounts/user/" + fixture.randomUserId(random) + "/total-balance");
+        }
+    },
+    CREDIT("credit") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.put("/accounts/" + fixture.randomAccount(random).id() + "/credit", amount(random));
+        }
+    },
+    DEBIT("debit") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.put("/accounts/" + fixture.randomAccount(random).id() + "/debit", amount(random));
+        }
+    },
+    TRANSFER("transfer") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            long from = fixture.randomAccount(random).id();
+            long to;
+            do {
+                to = fixture.randomAccount(random).id();
+            } while (to == from && fixture.accountCount() > 1);
+            return api.post("/accounts/transfer", String.format(
+                    "{\"fromAccountId\":%d,\"toAccountId\":%d,\"amount\":%s}", from, to, amountValue(random)));
+        }
+    },
+    USER_SEARCH("user-search") {
+        @Override
+        HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random) {
+            return api.get("/users/search?q="
+                    + URLEncoder.encode(fixture.randomSearchTerm(random), StandardCharsets.UTF_8));
+        }
+    };
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Name used in the mix and budget settings and in the report
+     */
+    String getName() {
+        return name;
+    }
+
+    abstract HttpRequest request(ApiClient api, Fixture fixture, RandomGenerator random);
+
+    private static String amount(RandomGenerator random) {
+        return "{\"amount\":" + amountValue(random) + "}";
+    }
+
+    // 0.01 - 99.99
+    private static String amountValue(RandomGenerator random) {
+        int cents = 1 + random.nextInt(9999);
+        return (cents / 100) + "." + String.format("%02d", cents % 100);
+    }
+}
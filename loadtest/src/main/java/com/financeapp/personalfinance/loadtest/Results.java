@@ -0,0 +1,129 @@
+package com.financeapp.personalfinance.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds, 3 significant digits) and error counts per operation for one run
+ */
+final class Results {
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p999"};
+    private static final double[] PERCENTILE_VALUES = {50.0, 99.0, 99.9};
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private volatile long elapsedNanos;
+
+    Results(Set<Operation> operations) {
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Record a completed request; the latency of failed requests is not recorded
+     */
+    void record(Operation operation, long latencyNanos, boolean success) {
+        OperationStats operationStats = stats.get(operation);
+        if (success) {
+            operationStats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        } else {
+            operationStats.errors.increment();
+        }
+    }
+
+    void setElapsed(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%n%-20s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            printRow(out, entry.getKey().getName(), operationStats.latency, operationStats.errors.sum(), seconds);
+            all.add(operationStats.latency);
+            allErrors += operationStats.errors.sum();
+        }
+        printRow(out, "all", all, allErrors, seconds);
+    }
+
+    /**
+     * Write the percentile distribution of each operation as &lt;operation&gt;.hgrm, in milliseconds
+     */
+    void writeHistograms(Path directory) throws FileNotFoundException {
+        directory.toFile().mkdirs();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(directory.resolve(entry.getKey().getName() + ".hgrm").toFile())) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    /**
+     * Budgets exceeded in this run, one line each; empty when the run passed
+     */
+    List<String> checkBudgets(LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Operation operation = entry.getKey();
+            Histogram latency = entry.getValue().latency;
+            long errors = entry.getValue().errors.sum();
+            long requests = latency.getTotalCount() + errors;
+            if (requests == 0) {
+                violations.add(operation.getName() + ": no requests completed");
+                continue;
+            }
+
+            double errorRate = (double) errors / requests;
+            if (errorRate > config.getMaxErrorRate()) {
+                violations.add(String.format("%s: error rate %.2f%% is above %.2f%%",
+                        operation.getName(), errorRate * 100, config.getMaxErrorRate() * 100));
+            }
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                String percentile = PERCENTILES[i];
+                long actualMicros = latency.getValueAtPercentile(PERCENTILE_VALUES[i]);
+                config.getBudget(operation, percentile)
+                        .filter(budget -> actualMicros > TimeUnit.NANOSECONDS.toMicros(budget.toNanos()))
+                        .ifPresent(budget -> violations.add(String.format("%s: %s %.1f ms is above the %s budget",
+                                operation.getName(), percentile, actualMicros / 1000.0, format(budget))));
+            }
+        }
+        return violations;
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latency, long errors, double seconds) {
+        out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, latency.getTotalCount(), errors, latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50.0) / 1000.0, latency.getValueAtPercentile(99.0) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    private static String format(Duration duration) {
+        return duration.toMillis() + " ms";
+    }
+
+    private static final class OperationStats {
+        // Auto-resizing, so there is no upper bound on a recorded latency
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
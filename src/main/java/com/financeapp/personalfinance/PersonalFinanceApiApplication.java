@@ -2,9 +2,12 @@ package com.financeapp.personalfinance;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
-@SpringBootApplication
+// The R2DBC drivers are only for the reactive read API, which builds its own pool (see ReactiveApiConfig);
+// an auto-configured ConnectionFactory would replace the JDBC data source
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableConfigurationProperties
 public class PersonalFinanceApiApplication {
 
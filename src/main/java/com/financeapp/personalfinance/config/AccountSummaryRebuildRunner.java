@@ -0,0 +1,30 @@
+package com.financeapp.personalfinance.config;
+
+import com.financeapp.personalfinance.service.AccountSummaryMaintainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes user_account_summary from the accounts table when the application is started with
+ * {@code --rebuild-account-summaries}, e.g. after balances were changed directly in the database.
+ */
+@Component
+public class AccountSummaryRebuildRunner implements ApplicationRunner {
+
+    public static final String OPTION = "rebuild-account-summaries";
+
+    @Autowired
+    private AccountSummaryMaintainer accountSummaryMaintainer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        System.out.println("🔄 Rebuilding user account summaries...");
+        int users = accountSummaryMaintainer.rebuildAll();
+        System.out.println("✅ Rebuilt account summaries for " + users + " users");
+    }
+}
@@ -0,0 +1,36 @@
+package com.financeapp.personalfinance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches for account and user lookups, bounded by size and TTL (Caffeine, W-TinyLFU eviction).
+ * Entities are cached by id; account numbers and emails map to an id so one eviction covers both lookups.
+ * Entity puts and evictions go through {@link CacheGenerations}, so a lookup that read a row just before a
+ * change committed does not put the old row back.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String ACCOUNTS = "accounts";
+    public static final String ACCOUNT_IDS_BY_NUMBER = "accountIdsByNumber";
+    public static final String USERS = "users";
+    public static final String USER_IDS_BY_EMAIL = "userIdsByEmail";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec:maximumSize=10000,expireAfterWrite=5m,recordStats}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(
+                ACCOUNTS, ACCOUNT_IDS_BY_NUMBER, USERS, USER_IDS_BY_EMAIL);
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+        return caffeineCacheManager;
+    }
+
+    @Bean
+    public CacheGenerations cacheGenerations() {
+        return new CacheGenerations();
+    }
+}
@@ -0,0 +1,76 @@
+package com.financeapp.personalfinance.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Keeps a cache fill from putting back a row that was changed while it was being read.
+ * <p>
+ * Every cached key hashes to a generation counter that evictions advance once their transaction commits. A reader
+ * takes the key's generation before it reads from the database, and its put (also applied once its own transaction
+ * commits) is dropped if the generation has moved since: an eviction committed in between, so the value read may be
+ * the old one. Keys share counters, so an unrelated eviction only costs a skipped put.
+ */
+public class CacheGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final long[] generations = new long[STRIPES];
+
+    /**
+     * Generation of the key, to be taken before reading the value to cache
+     */
+    public long current(Cache cache, Object key) {
+        int stripe = stripe(cache, key);
+        synchronized (this) {
+            return generations[stripe];
+        }
+    }
+
+    /**
+     * Put the value once the current transaction commits, unless the key was evicted after the given generation
+     */
+    public void put(Cache cache, Object key, Object value, long generation) {
+        afterCommit(() -> {
+            int stripe = stripe(cache, key);
+            synchronized (this) {
+                if (generations[stripe] == generation) {
+                    cache.put(key, value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Evict the key once the current transaction commits
+     */
+    public void evict(Cache cache, Object key) {
+        afterCommit(() -> {
+            int stripe = stripe(cache, key);
+            synchronized (this) {
+                generations[stripe]++;
+                cache.evict(key);
+            }
+        });
+    }
+
+    private static int stripe(Cache cache, Object key) {
+        return Math.floorMod(Objects.hash(cache.getName(), key), STRIPES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.financeapp.personalfinance.config;
 
 import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
 import com.financeapp.personalfinance.model.User;
 import com.financeapp.personalfinance.service.AccountService;
 import com.financeapp.personalfinance.service.UserService;
@@ -44,24 +45,24 @@ public class DataInitializer implements CommandLineRunner {
 
             // Create test accounts for user1
             Account checking1 = new Account("Main Checking", "CHK-001", Account.AccountType.CHECKING, user1.getId());
-            checking1.setBalance(new BigDecimal("2500.00"));
+            checking1.setBalance(Money.of(new BigDecimal("2500.00"), Money.DEFAULT_CURRENCY));
 
             Account savings1 = new Account("Emergency Fund", "SAV-001", Account.AccountType.SAVINGS, user1.getId());
-            savings1.setBalance(new BigDecimal("10000.00"));
+            savings1.setBalance(Money.of(new BigDecimal("10000.00"), Money.DEFAULT_CURRENCY));
 
             Account credit1 = new Account("Main Credit Card", "CC-001", Account.AccountType.CREDIT_CARD, user1.getId());
-            credit1.setBalance(new BigDecimal("-1250.75"));
+            credit1.setBalance(Money.of(new BigDecimal("-1250.75"), Money.DEFAULT_CURRENCY));
 
             // Create test accounts for user2
             Account checking2 = new Account("Primary Checking", "CHK-002", Account.AccountType.CHECKING, user2.getId());
-            checking2.setBalance(new BigDecimal("3200.50"));
+            checking2.setBalance(Money.of(new BigDecimal("3200.50"), Money.DEFAULT_CURRENCY));
 
             Account investment2 = new Account("Investment Portfolio", "INV-001", Account.AccountType.INVESTMENT, user2.getId());
-            investment2.setBalance(new BigDecimal("25000.00"));
+            investment2.setBalance(Money.of(new BigDecimal("25000.00"), Money.DEFAULT_CURRENCY));
 
             // Create test accounts for user3
             Account savings3 = new Account("Vacation Fund", "SAV-002", Account.AccountType.SAVINGS, user3.getId());
-            savings3.setBalance(new BigDecimal("5500.25"));
+            savings3.setBalance(Money.of(new BigDecimal("5500.25"), Money.DEFAULT_CURRENCY));
 
             // Save accounts
             accountService.createAccount(checking1);
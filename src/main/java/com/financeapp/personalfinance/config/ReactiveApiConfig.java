@@ -0,0 +1,144 @@
+package com.financeapp.personalfinance.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personalfinance.controller.ReactiveAccountHandler;
+import com.financeapp.personalfinance.repository.ReactiveAccountRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.BalanceEventHub;
+import com.financeapp.personalfinance.service.HotAccountAccumulator;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Reactive read API (app.reactive-api.enabled): the account lookups and balance stream of
+ * {@link ReactiveAccountHandler} on their own port (app.reactive-api.port), next to the servlet API. A fixed set of app.reactive-api.threads event loop threads
+ * serves every request and, with PostgreSQL, also runs the R2DBC connections, so in-flight requests cost neither a
+ * thread nor a connection while they wait on the database.
+ * <p>
+ * The R2DBC pool is deliberately not a bean: a ConnectionFactory bean would switch off the JDBC data source
+ * auto-configuration the rest of the application runs on.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.reactive-api.enabled")
+public class ReactiveApiConfig {
+
+    // Option of the PostgreSQL driver for the event loops its connections run on
+    private static final Option<LoopResources> LOOP_RESOURCES = Option.valueOf("loopResources");
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(Environment environment, ObjectMapper objectMapper,
+                                               AccountService accountService, HotAccountAccumulator hotAccounts,
+                                               BalanceEventHub balanceEvents) {
+        return new ReactiveApiServer(environment, objectMapper, accountService, hotAccounts, balanceEvents);
+    }
+
+    public static class ReactiveApiServer implements SmartLifecycle, DisposableBean {
+
+        private static final Logger logger = LoggerFactory.getLogger(ReactiveApiServer.class);
+
+        private final int port;
+        private final int threads;
+        private final ObjectMapper objectMapper;
+        private final LoopResources loops;
+        private final ConnectionPool connectionPool;
+        private final ReactiveAccountHandler accountHandler;
+        private volatile DisposableServer server;
+
+        ReactiveApiServer(Environment environment, ObjectMapper objectMapper, AccountService accountService,
+                          HotAccountAccumulator hotAccounts, BalanceEventHub balanceEvents) {
+            this.port = environment.getProperty("app.reactive-api.port", Integer.class, 8081);
+            this.threads = environment.getProperty("app.reactive-api.threads", Integer.class,
+                    Runtime.getRuntime().availableProcessors());
+            this.objectMapper = objectMapper;
+            this.loops = LoopResources.create("reactive-api", 1, threads, true);
+            this.connectionPool = connectionPool(environment, loops);
+            this.accountHandler = new ReactiveAccountHandler(
+                    new ReactiveAccountRepository(DatabaseClient.create(connectionPool)), accountService, hotAccounts,
+                    balanceEvents);
+        }
+
+        private static ConnectionPool connectionPool(Environment environment, LoopResources loops) {
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(environment.getProperty(
+                            "app.reactive-api.r2dbc.url", "r2dbc:postgresql://localhost:5432/personal_finance"))
+                    .mutate()
+                    .option(ConnectionFactoryOptions.USER, environment.getProperty("app.reactive-api.r2dbc.username",
+                            environment.getProperty("spring.datasource.username", "")))
+                    .option(ConnectionFactoryOptions.PASSWORD, environment.getProperty("app.reactive-api.r2dbc.password",
+                            environment.getProperty("spring.datasource.password", "")));
+            ConnectionFactoryOptions built = options.build();
+            if ("postgresql".equals(built.getValue(ConnectionFactoryOptions.DRIVER))) {
+                built = options.option(LOOP_RESOURCES, loops).build();
+            }
+            int maxSize = environment.getProperty("app.reactive-api.r2dbc.max-size", Integer.class, 20);
+            return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(built))
+                    .name("reactive-api")
+                    .initialSize(0)
+                    .maxSize(maxSize)
+                    .maxAcquireTime(environment.getProperty("app.reactive-api.r2dbc.acquire-timeout", Duration.class,
+                            Duration.ofSeconds(20)))
+                    .build());
+        }
+
+        @Override
+        public void start() {
+            HandlerStrategies strategies = HandlerStrategies.builder()
+                    .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                    .build();
+            server = HttpServer.create()
+                    .port(port)
+                    .runOn(loops)
+                    .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(accountHandler.routes(),
+                            strategies)))
+                    .bindNow();
+            logger.info("Reactive read API listening on port {} ({} event loop threads)", server.port(), threads);
+        }
+
+        @Override
+        public void stop() {
+            DisposableServer running = server;
+            if (running != null) {
+                running.disposeNow();
+                server = null;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return server != null;
+        }
+
+        /**
+         * Port the server is bound to (differs from app.reactive-api.port when that is 0)
+         */
+        public int getPort() {
+            return server.port();
+        }
+
+        @Override
+        public void destroy() {
+            connectionPool.dispose();
+            loops.dispose();
+        }
+    }
+}
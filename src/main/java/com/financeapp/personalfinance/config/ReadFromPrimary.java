@@ -0,0 +1,15 @@
+package com.financeapp.personalfinance.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the reads of a read-only service method on the primary when replicas are configured, for lookups
+ * whose results are cached: a lagging replica's copy would otherwise stay in the cache for its whole TTL
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,149 @@
+package com.financeapp.personalfinance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas (app.datasource.replicas.enabled): read-only transactions run on the replica pools
+ * (app.datasource.replicas.urls), writes and everything else on the primary.
+ * <p>
+ * The primary data source is wrapped in a {@link LazyConnectionDataSourceProxy}, which takes the physical
+ * connection on the first statement, once the transaction has marked it read-only, and takes read-only ones
+ * from the {@link ReplicaRoutingDataSource}. Methods annotated {@link ReadFromPrimary} and requests handled by the
+ * {@link ReadYourWritesFilter} keep their reads on the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled")
+public class ReplicaRoutingConfig {
+
+    // pg_last_xact_replay_timestamp() stands still while the primary is idle, so a replica that has replayed
+    // everything it received counts as current. Databases that are not in recovery report no lag.
+    static final String POSTGRESQL_LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment environment) {
+        return new ReplicaRoutingPostProcessor(environment);
+    }
+
+    @Bean
+    public ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaRoutingPostProcessor replicaRouting) {
+        return registry -> Gauge.builder("app.datasource.replicas.available", replicaRouting,
+                        processor -> processor.getRouting() == null ? 0 : processor.getRouting().getAvailableReplicaCount())
+                .description("Replicas currently taking read-only transactions")
+                .register(registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replicas.read-your-writes", matchIfMissing = true)
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(Environment environment) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(
+                environment.getProperty("app.datasource.replicas.read-your-writes-window", Duration.class,
+                        Duration.ofSeconds(10))));
+        // Right after statement counting, before anything that may read
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Wraps the primary data source bean. Ordered after the connection limiter of {@link VirtualThreadConfig}, which
+     * needs the pool itself, and before the unordered statement counting, which then counts replica statements too.
+     */
+    public static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final Environment environment;
+        private ReplicaRoutingDataSource routing;
+
+        ReplicaRoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && beanName.equals("dataSource") && routing == null) {
+                routing = new ReplicaRoutingDataSource(primary, replicaPools(),
+                        environment.getProperty("app.datasource.replicas.lag-query", POSTGRESQL_LAG_QUERY),
+                        environment.getProperty("app.datasource.replicas.max-lag", Duration.class, Duration.ofSeconds(5)),
+                        environment.getProperty("app.datasource.replicas.lag-check-interval", Duration.class,
+                                Duration.ofSeconds(1)));
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                proxy.setReadOnlyDataSource(routing);
+                return proxy;
+            }
+            return bean;
+        }
+
+        private List<HikariDataSource> replicaPools() {
+            String[] urls = environment.getRequiredProperty("app.datasource.replicas.urls", String[].class);
+            List<HikariDataSource> pools = new ArrayList<>();
+            for (int i = 0; i < urls.length; i++) {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("replica-" + (i + 1));
+                pool.setJdbcUrl(urls[i].trim());
+                pool.setDriverClassName(environment.getProperty("spring.datasource.driver-class-name"));
+                pool.setUsername(environment.getProperty("app.datasource.replicas.username",
+                        environment.getProperty("spring.datasource.username")));
+                pool.setPassword(environment.getProperty("app.datasource.replicas.password",
+                        environment.getProperty("spring.datasource.password")));
+                pool.setMaximumPoolSize(environment.getProperty("app.datasource.replicas.maximum-pool-size",
+                        Integer.class, 10));
+                // A replica that is down must neither block startup nor hold a read for long
+                pool.setInitializationFailTimeout(-1);
+                pool.setConnectionTimeout(environment.getProperty("app.datasource.replicas.connection-timeout",
+                        Duration.class, Duration.ofSeconds(2)).toMillis());
+                pool.setReadOnly(true);
+                pools.add(pool);
+            }
+            return pools;
+        }
+
+        public ReplicaRoutingDataSource getRouting() {
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+
+        @Override
+        public void destroy() {
+            if (routing != null) {
+                routing.close();
+            }
+        }
+    }
+
+    @Aspect
+    static class ReadFromPrimaryAspect {
+
+        @Around("@annotation(com.financeapp.personalfinance.config.ReadFromPrimary)")
+        public Object onPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+            return ReplicaRoutingDataSource.onPrimary(joinPoint::proceed);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.financeapp.personalfinance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions (see {@link ReplicaRoutingConfig}): round-robin over the replica pools
+ * whose replication lag is within the maximum, falling back to the primary when no replica is usable, when a
+ * replica refuses a connection, or when the thread is pinned to the primary ({@link #onPrimary}).
+ * <p>
+ * Lag is measured in the background with the lag query, which returns the replica's lag in seconds. A replica
+ * counts as unusable until its first check succeeds and whenever a check fails.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final ScheduledExecutorService lagChecker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+                                    Duration maxLag, Duration lagCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0, lagCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run with every read-only transaction started (or first used) inside going to the primary
+     */
+    public static <T, E extends Throwable> T onPrimary(PrimaryWork<T, E> work) throws E {
+        if (isPinnedToPrimary()) {
+            return work.run();
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.run();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isPinnedToPrimary()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (replica.available) {
+                    try {
+                        return replica.pool.getConnection();
+                    } catch (SQLException e) {
+                        replica.update(false, "connection failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Measure every replica's lag and update which of them take reads
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(lagQuery)) {
+                double lagSeconds = lag.next() ? lag.getDouble(1) : Double.MAX_VALUE;
+                replica.update(lagSeconds * 1000 <= maxLag.toMillis(), "lag " + lagSeconds + "s");
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, "lag check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getAvailableReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    @FunctionalInterface
+    public interface PrimaryWork<T, E extends Throwable> {
+        T run() throws E;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean available;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        void update(boolean usable, String reason) {
+            if (usable != available) {
+                available = usable;
+                if (usable) {
+                    logger.info("Replica {} takes reads ({})", pool.getPoolName(), reason);
+                } else {
+                    logger.warn("Replica {} no longer takes reads ({}); they go to the others or the primary",
+                            pool.getPoolName(), reason);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.financeapp.personalfinance.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of each HTTP request. Publishes them per endpoint as the app.sql.statements and
+ * app.sql.round-trips summaries, leaves the {@link SqlStatementStats} in a request attribute (for tests),
+ * and warns when a request goes over the statement budget or repeats the same statement (N+1).
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final int repeatedStatementThreshold;
+
+    public SqlStatementFilter(MeterRegistry meterRegistry, int statementBudget, int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            stats.stop();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String endpoint = request.getMethod() + " " + uri;
+
+        summary("app.sql.statements", "SQL statements per HTTP request", request.getMethod(), uri)
+                .record(stats.getStatementCount());
+        summary("app.sql.round-trips", "Database round trips per HTTP request", request.getMethod(), uri)
+                .record(stats.getRoundTripCount());
+        logger.debug("{}: {}", endpoint, stats);
+
+        if (stats.getStatementCount() > statementBudget) {
+            logger.warn("{} issued {}, over the budget of {}", endpoint, stats, statementBudget);
+        }
+        for (Map.Entry<String, Integer> repeated : stats.getRepeatedStatements(repeatedStatementThreshold).entrySet()) {
+            logger.warn("{} executed the same statement {} times (N+1?): {}", endpoint, repeated.getValue(),
+                    repeated.getKey());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
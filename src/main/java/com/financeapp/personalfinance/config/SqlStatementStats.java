@@ -0,0 +1,100 @@
+package com.financeapp.personalfinance.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and database round trips issued by the current thread between {@link #start()} and {@link #stop()},
+ * e.g. one HTTP request. A batch counts each batched statement but a single round trip. Scopes can be nested;
+ * an inner scope's statements count towards the enclosing ones as well.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementStats parent;
+    private int statementCount;
+    private int roundTripCount;
+    // Executions of each SQL string outside batches; a statement repeated many times is usually an N+1 pattern
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    private SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Start counting the statements of the current thread
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop counting; the counts stay readable
+     */
+    public void stop() {
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    /**
+     * A statement executed on its own: one statement, one round trip
+     */
+    static void recordExecution(String sql) {
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statementCount++;
+            stats.roundTripCount++;
+            if (sql != null) {
+                stats.executionsBySql.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * A statement added to a batch; it reaches the database with the batch
+     */
+    static void recordBatchedStatement() {
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statementCount++;
+        }
+    }
+
+    static void recordBatchExecution() {
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.roundTripCount++;
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getRoundTripCount() {
+        return roundTripCount;
+    }
+
+    /**
+     * SQL executed at least {@code threshold} times (outside batches), with the number of executions, most frequent first
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    @Override
+    public String toString() {
+        return statementCount + " statements in " + roundTripCount + " round trips";
+    }
+}
@@ -0,0 +1,78 @@
+package com.financeapp.personalfinance.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts the statements executed through its connections into the thread's current {@link SqlStatementStats}.
+ * <p>
+ * Connections and the statements they create are wrapped in JDK proxies that note each execute call before
+ * passing it on; when no stats scope is active the proxies only pass calls through.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+    private static final Set<String> BATCH_EXECUTE_METHODS = Set.of("executeBatch", "executeLargeBatch");
+    private static final Set<String> STATEMENT_FACTORY_METHODS = Set.of(
+            "createStatement", "prepareStatement", "prepareCall");
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && STATEMENT_FACTORY_METHODS.contains(method.getName())) {
+                        // prepareStatement/prepareCall take the SQL up front; plain statements get it per execute call
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return counting(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object counting(Statement statement, Class<?> statementType, String preparedSql) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (EXECUTE_METHODS.contains(name)) {
+                        SqlStatementStats.recordExecution(
+                                args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+                    } else if (name.equals("addBatch")) {
+                        SqlStatementStats.recordBatchedStatement();
+                    } else if (BATCH_EXECUTE_METHODS.contains(name)) {
+                        SqlStatementStats.recordBatchExecution();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.financeapp.personalfinance.config;
+
+import com.financeapp.personalfinance.dto.UserImportReport;
+import com.financeapp.personalfinance.service.UserCsvImporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Imports users from a CSV file when the application is started with {@code --import-users=<file>}.
+ * Rejected rows go to {@code --import-users-rejected=<file>}, by default the input file name plus
+ * {@code .rejected.csv}; progress is logged as the import runs.
+ */
+@Component
+public class UserImportRunner implements ApplicationRunner {
+
+    public static final String OPTION = "import-users";
+    public static final String REJECTED_OPTION = "import-users-rejected";
+
+    @Autowired
+    private UserCsvImporter userCsvImporter;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        Path csvFile = Path.of(single(args, OPTION));
+        Path rejectedRowsFile = args.containsOption(REJECTED_OPTION)
+                ? Path.of(single(args, REJECTED_OPTION))
+                : csvFile.resolveSibling(csvFile.getFileName() + ".rejected.csv");
+
+        System.out.println("📥 Importing users from " + csvFile + "...");
+        UserImportReport report = userCsvImporter.importUsers(csvFile, rejectedRowsFile);
+        System.out.println("✅ Imported " + report.getImported() + " of " + report.getRowsRead() + " users in "
+                + report.getElapsedMillis() + " ms; " + report.getRejected() + " rejected rows in "
+                + report.getRejectedRowsLocation());
+    }
+
+    private static String single(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        if (values == null || values.size() != 1 || values.get(0).isBlank()) {
+            throw new IllegalArgumentException("--" + option + " needs one file name");
+        }
+        return values.get(0);
+    }
+}
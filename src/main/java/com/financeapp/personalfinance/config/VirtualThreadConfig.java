@@ -0,0 +1,79 @@
+package com.financeapp.personalfinance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when spring.threads.virtual.enabled=true: Tomcat then serves every request (controller and
+ * service calls) on its own virtual thread, and the Hikari pool is fronted by a semaphore of the same size.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static ConnectionLimitingPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        return new ConnectionLimitingPostProcessor(environment.getProperty(
+                "app.datasource.connection-permit-timeout", Duration.class, Duration.ofSeconds(60)));
+    }
+
+    /**
+     * Gauges for the semaphore in front of the pool; with virtual threads the wait for a connection happens
+     * here rather than in hikaricp.connections.pending
+     */
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            ConcurrencyLimitingDataSource limited =
+                    DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitingDataSource.class);
+            if (limited != null) {
+                Gauge.builder("app.datasource.connection.permits.available", limited,
+                                ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .description("Connection permits not currently held")
+                        .register(registry);
+                Gauge.builder("app.datasource.connection.permits.waiting", limited,
+                                ConcurrencyLimitingDataSource::getQueueLength)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Ordered (and declared with this type, so the order is known before it is created): it has to see the
+     * HikariDataSource itself, before other post-processors wrap it
+     */
+    static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Duration acquireTimeout;
+
+        ConnectionLimitingPostProcessor(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new ConcurrencyLimitingDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
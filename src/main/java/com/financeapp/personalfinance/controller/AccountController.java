@@ -1,12 +1,23 @@
 package com.financeapp.personalfinance.controller;
 
 import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Transaction;
+import com.financeapp.personalfinance.dto.AccountCreationResult;
 import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.TransferInstruction;
+import com.financeapp.personalfinance.dto.TransferResult;
 import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.BalanceEventHub;
+import com.financeapp.personalfinance.service.IdempotencyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,6 +30,12 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BalanceEventHub balanceEvents;
+
     // Create a new account
     @PostMapping
     public ResponseEntity<Account> createAccount(@RequestBody Account account) {
@@ -30,11 +47,32 @@ public class AccountController {
         }
     }
 
-    // Get all accounts
+    // Create many accounts in one request; each row reports its own outcome
+    @PostMapping("/bulk")
+    public ResponseEntity<List<AccountCreationResult>> createAccounts(@RequestBody List<Account> accounts) {
+        try {
+            List<AccountCreationResult> results = accountService.createAccounts(accounts);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Get all accounts (keyset paginated: ?after=<last id>&limit=)
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        List<Account> accounts = accountService.getAllAccounts();
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+    public ResponseEntity<List<Account>> getAllAccounts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(accountService.getAccountsPage(after, limit));
+    }
+
+    // Export all accounts as newline-delimited JSON, streamed straight from the database cursor
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccounts() {
+        StreamingResponseBody body = out -> accountService.exportAccounts(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // Get account by ID
@@ -60,11 +98,20 @@ public class AccountController {
         return new ResponseEntity<>(accounts, HttpStatus.OK);
     }
 
+    // Stream the balance changes of a user's accounts as server-sent events (one "balance" event per account
+    // and committed change)
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalanceChanges(@PathVariable Long userId) {
+        return balanceEvents.subscribe(userId);
+    }
+
     // Get accounts by type
     @GetMapping("/type/{accountType}")
-    public ResponseEntity<List<Account>> getAccountsByType(@PathVariable Account.AccountType accountType) {
-        List<Account> accounts = accountService.getAccountsByType(accountType);
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+    public ResponseEntity<List<Account>> getAccountsByType(
+            @PathVariable Account.AccountType accountType,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(accountService.getAccountsByTypePage(accountType, after, limit));
     }
 
     // Get accounts by user ID and type
@@ -100,9 +147,17 @@ public class AccountController {
         }
     }
 
-    // Credit amount to account
+    // Credit amount to account (retries with the same Idempotency-Key replay the first response)
     @PutMapping("/{id}/credit")
-    public ResponseEntity<Account> creditAccount(@PathVariable Long id, @RequestBody TransactionRequest request) {
+    public ResponseEntity<Account> creditAccount(
+            @PathVariable Long id,
+            @RequestBody TransactionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("credit", id, request.getAmount()),
+                Account.class, () -> credit(id, request));
+    }
+
+    private ResponseEntity<Account> credit(Long id, TransactionRequest request) {
         try {
             Account updatedAccount = accountService.creditAccount(id, request.getAmount());
             return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
@@ -113,9 +168,17 @@ public class AccountController {
         }
     }
 
-    // Debit amount from account
+    // Debit amount from account (retries with the same Idempotency-Key replay the first response)
     @PutMapping("/{id}/debit")
-    public ResponseEntity<Account> debitAccount(@PathVariable Long id, @RequestBody TransactionRequest request) {
+    public ResponseEntity<Account> debitAccount(
+            @PathVariable Long id,
+            @RequestBody TransactionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("debit", id, request.getAmount()),
+                Account.class, () -> debit(id, request));
+    }
+
+    private ResponseEntity<Account> debit(Long id, TransactionRequest request) {
         try {
             Account updatedAccount = accountService.debitAccount(id, request.getAmount());
             return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
@@ -128,9 +191,18 @@ public class AccountController {
         }
     }
 
-    // Transfer between accounts
+    // Transfer between accounts (retries with the same Idempotency-Key replay the first response)
     @PostMapping("/transfer")
-    public ResponseEntity<TransferResponse> transferBetweenAccounts(@RequestBody TransferRequest request) {
+    public ResponseEntity<TransferResponse> transferBetweenAccounts(
+            @RequestBody TransferRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String fingerprint = fingerprint("transfer", request.getFromAccountId(), request.getToAccountId(),
+                request.getAmount());
+        return idempotencyService.execute(idempotencyKey, fingerprint, TransferResponse.class,
+                () -> transfer(request));
+    }
+
+    private ResponseEntity<TransferResponse> transfer(TransferRequest request) {
         try {
             accountService.transferBetweenAccounts(
                     request.getFromAccountId(),
@@ -154,6 +226,32 @@ public class AccountController {
         }
     }
 
+    // Apply a batch of transfers in one transaction; each item reports its own outcome
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<List<TransferResult>> transferBatch(@RequestBody List<TransferInstruction> transfers) {
+        try {
+            List<TransferResult> results = accountService.transferBatch(transfers);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Get the transaction journal of an account, newest first (keyset paginated: ?before=<last id>&limit=)
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<List<Transaction>> getAccountTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return pageResponse(accountService.getTransactionsPage(id, before, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
     // Delete account
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAccount(@PathVariable Long id) {
@@ -196,28 +294,32 @@ public class AccountController {
         return new ResponseEntity<>(accounts, HttpStatus.OK);
     }
 
-    // Get accounts with low balance
+    // Get accounts with low balance: below the given threshold, or by default below each account's own
+    // threshold (app.accounts.low-balance.threshold unless the account sets lowBalanceThreshold)
     @GetMapping("/low-balance")
     public ResponseEntity<List<Account>> getAccountsWithLowBalance(
-            @RequestParam(defaultValue = "100.00") BigDecimal threshold) {
-        List<Account> accounts = accountService.getAccountsWithLowBalance(threshold);
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+            @RequestParam(required = false) BigDecimal threshold,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(accountService.getAccountsWithLowBalancePage(threshold, after, limit));
     }
 
     // Get recent accounts (created in last N days)
     @GetMapping("/recent")
     public ResponseEntity<List<Account>> getRecentAccounts(
-            @RequestParam(defaultValue = "30") int days) {
-        List<Account> accounts = accountService.getRecentAccounts(days);
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(accountService.getRecentAccountsPage(days, after, limit));
     }
 
     // Get inactive accounts (not updated in last N days)
     @GetMapping("/inactive")
     public ResponseEntity<List<Account>> getInactiveAccounts(
-            @RequestParam(defaultValue = "90") int days) {
-        List<Account> accounts = accountService.getInactiveAccounts(days);
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+            @RequestParam(defaultValue = "90") int days,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(accountService.getInactiveAccountsPage(days, after, limit));
     }
 
     // Get account summary for a user
@@ -244,6 +346,26 @@ public class AccountController {
         return new ResponseEntity<>(stats, HttpStatus.OK);
     }
 
+    // Page items go in the body; the cursor for the next page goes in a response header
+    private static <T> ResponseEntity<List<T>> pageResponse(KeysetPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(KeysetPage.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+
+    // Identifies the request an Idempotency-Key was first used for; amounts are compared by value
+    private static String fingerprint(String operation, Object... parts) {
+        StringBuilder fingerprint = new StringBuilder(operation);
+        for (Object part : parts) {
+            fingerprint.append(':').append(part instanceof BigDecimal amount
+                    ? amount.stripTrailingZeros().toPlainString()
+                    : part);
+        }
+        return fingerprint.toString();
+    }
+
     // Inner classes for request/response DTOs
     public static class BalanceUpdateRequest {
         private BigDecimal newBalance;
@@ -0,0 +1,126 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.dto.BalanceEvent;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.repository.ReactiveAccountRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.BalanceEventHub;
+import com.financeapp.personalfinance.service.HotAccountAccumulator;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Reactive read API for accounts: the same paths and JSON as the {@link AccountController} lookups, served
+ * without blocking a thread per request (see ReactiveApiConfig).
+ * <p>
+ * The balance stream is where tens of thousands of idle clients are cheapest: an open connection here is a Netty
+ * channel, while the servlet container keeps request and response buffers for each.
+ * <p>
+ * Hot accounts (app.accounts.hot.ids) carry credits in memory that only the blocking service can add to their
+ * rows consistently, so their lookups go through {@link AccountService} on the bounded elastic scheduler.
+ */
+public class ReactiveAccountHandler {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final AccountService accountService;
+    private final HotAccountAccumulator hotAccounts;
+    private final BalanceEventHub balanceEvents;
+
+    public ReactiveAccountHandler(ReactiveAccountRepository accountRepository, AccountService accountService,
+                                  HotAccountAccumulator hotAccounts, BalanceEventHub balanceEvents) {
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.hotAccounts = hotAccounts;
+        this.balanceEvents = balanceEvents;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path("/api/v1/accounts", accounts -> accounts
+                        .GET("/{id}", this::getAccountById)
+                        .GET("/number/{accountNumber}", this::getAccountByNumber)
+                        .GET("/user/{userId}", this::getAccountsByUserId)
+                        .GET("/user/{userId}/total-balance", this::getTotalBalanceByUserId)
+                        .GET("/user/{userId}/stream", this::streamBalanceChanges))
+                .build();
+    }
+
+    // Get account by ID
+    Mono<ServerResponse> getAccountById(ServerRequest request) {
+        return withId(request, "id", id -> found(hotAccounts.isHot(id)
+                ? blocking(() -> accountService.getAccountById(id))
+                : accountRepository.findById(id)));
+    }
+
+    // Get account by account number
+    Mono<ServerResponse> getAccountByNumber(ServerRequest request) {
+        return found(accountRepository.findByAccountNumber(request.pathVariable("accountNumber"))
+                .flatMap(account -> hotAccounts.isHot(account.getId())
+                        ? blocking(() -> accountService.getAccountById(account.getId()))
+                        : Mono.just(account)));
+    }
+
+    // Get accounts by user ID
+    Mono<ServerResponse> getAccountsByUserId(ServerRequest request) {
+        return withId(request, "userId", userId -> ServerResponse.ok()
+                .body(accountRepository.findByUserId(userId), Account.class));
+    }
+
+    // Get total balance for a user
+    Mono<ServerResponse> getTotalBalanceByUserId(ServerRequest request) {
+        return withId(request, "userId", userId -> {
+            Mono<BigDecimal> total = hotAccounts.hotAccountIdsForUser(userId).isEmpty()
+                    ? accountRepository.getTotalBalanceByUserId(userId).map(Money::toDecimal)
+                    : Mono.fromCallable(() -> accountService.getTotalBalanceByUserId(userId))
+                            .subscribeOn(Schedulers.boundedElastic());
+            return total.flatMap(totalBalance -> {
+                AccountController.BalanceResponse response = new AccountController.BalanceResponse();
+                response.setTotalBalance(totalBalance);
+                response.setUserId(userId);
+                return ServerResponse.ok().bodyValue(response);
+            });
+        });
+    }
+
+    // Stream the balance changes of a user's accounts as server-sent events
+    Mono<ServerResponse> streamBalanceChanges(ServerRequest request) {
+        return withId(request, "userId", userId -> ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(balanceEvents.stream(userId), new ParameterizedTypeReference<ServerSentEvent<BalanceEvent>>() {}));
+    }
+
+    private static Mono<ServerResponse> withId(ServerRequest request, String name,
+                                               Function<Long, Mono<ServerResponse>> handler) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable(name));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return handler.apply(id);
+    }
+
+    private static Mono<ServerResponse> found(Mono<Account> account) {
+        return account.flatMap(a -> ServerResponse.ok().bodyValue(a))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private static Mono<Account> blocking(Callable<Optional<Account>> lookup) {
+        return Mono.fromCallable(lookup)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+    }
+}
@@ -1,13 +1,27 @@
 package com.financeapp.personalfinance.controller;
 
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.UserImportReport;
 import com.financeapp.personalfinance.dto.UserStats;
 import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.service.RejectedRowsFiles;
+import com.financeapp.personalfinance.service.UserCsvImporter;
 import com.financeapp.personalfinance.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +29,18 @@ import java.util.Optional;
 @RequestMapping("/api/v1/users")
 public class UserController {
 
+    static final String NEXT_PAGE_HEADER = "X-Next-Page";
+    static final String REJECTED_ROWS_PATH = "/api/v1/users/import/rejected/";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserCsvImporter userCsvImporter;
+
+    @Autowired
+    private RejectedRowsFiles rejectedRowsFiles;
+
     // Create a new user
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user) {
@@ -29,11 +52,58 @@ public class UserController {
         }
     }
 
-    // Get all users
+    // Import users from a CSV request body (text/csv), streamed in chunks. If rows were rejected, the report names
+    // the path to download them from (kept for app.users.import.rejected-retention)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportReport> importUsers(InputStream body) throws IOException {
+        Path rejectedRows = rejectedRowsFiles.create();
+        UserImportReport report;
+        try {
+            report = userCsvImporter.importUsers(new InputStreamReader(body, StandardCharsets.UTF_8), rejectedRows);
+        } catch (IllegalArgumentException e) {
+            rejectedRowsFiles.delete(rejectedRows);
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (IOException | RuntimeException e) {
+            rejectedRowsFiles.delete(rejectedRows);
+            throw e;
+        }
+        if (report.getRejected() == 0) {
+            rejectedRowsFiles.delete(rejectedRows);
+            report.setRejectedRowsLocation(null);
+        } else {
+            report.setRejectedRowsLocation(REJECTED_ROWS_PATH + rejectedRowsFiles.idOf(rejectedRows));
+        }
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    // Download the rejected rows of an import as CSV: line number and reason, then the original columns
+    @GetMapping(value = "/import/rejected/{id}", produces = "text/csv")
+    public ResponseEntity<Resource> getRejectedRows(@PathVariable String id) {
+        return rejectedRowsFiles.find(id)
+                .<ResponseEntity<Resource>>map(file -> new ResponseEntity<>(new FileSystemResource(file), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(null, HttpStatus.NOT_FOUND));
+    }
+
+    // Get all users (keyset paginated: ?after=<last id>&limit=)
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<User>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        KeysetPage<User> page = userService.getUsersPage(after, limit);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(KeysetPage.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+
+    // Export all users as newline-delimited JSON, streamed straight from the database cursor
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> userService.exportUsers(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // Get user by ID
@@ -73,18 +143,25 @@ public class UserController {
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Search users by first name, last name or email, best matches first (?q=&page=0&size=20). firstName is
+    // still accepted for the query. X-Next-Page names the next page when there is one.
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam("firstName") String firstName) {
-
+    public ResponseEntity<List<User>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String firstName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<User> users = userService.searchByFirstName(firstName);
-            return new ResponseEntity<>(users, HttpStatus.OK);
-        } catch (Exception e) {
-            // Log the exception
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            List<User> users = userService.searchUsers(q != null ? q : firstName, page, size);
+            HttpHeaders headers = new HttpHeaders();
+            if (users.size() > size) {
+                users = users.subList(0, size);
+                headers.add(NEXT_PAGE_HEADER, String.valueOf(page + 1));
+            }
+            return new ResponseEntity<>(users, headers, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
-
     }
 
     // Get user statistics
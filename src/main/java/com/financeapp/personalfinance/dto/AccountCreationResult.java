@@ -0,0 +1,89 @@
+package com.financeapp.personalfinance.dto;
+
+/**
+ * Outcome of one account in a bulk creation, reported in request order
+ */
+public class AccountCreationResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private String accountNumber;
+    private Long accountId;
+    private Status status;
+    private String message;
+
+    // Default constructor
+    public AccountCreationResult() {}
+
+    public AccountCreationResult(int index, String accountNumber, Long accountId, Status status, String message) {
+        this.index = index;
+        this.accountNumber = accountNumber;
+        this.accountId = accountId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static AccountCreationResult created(int index, String accountNumber, Long accountId) {
+        return new AccountCreationResult(index, accountNumber, accountId, Status.CREATED, "Account created successfully");
+    }
+
+    public static AccountCreationResult rejected(int index, String accountNumber, String message) {
+        return new AccountCreationResult(index, accountNumber, null, Status.REJECTED, message);
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountCreationResult{" +
+                "index=" + index +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", accountId=" + accountId +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.financeapp.personalfinance.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * New balance of an account after a committed change, as pushed on the balance stream
+ */
+public class BalanceEvent {
+
+    private Long accountId;
+    private Long userId;
+    private BigDecimal balance;
+    private String currency;
+
+    // Default constructor
+    public BalanceEvent() {}
+
+    public BalanceEvent(Long accountId, Long userId, BigDecimal balance, String currency) {
+        this.accountId = accountId;
+        this.userId = userId;
+        this.balance = balance;
+        this.currency = currency;
+    }
+
+    // Getters and setters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
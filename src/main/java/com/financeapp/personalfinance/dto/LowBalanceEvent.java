@@ -0,0 +1,68 @@
+package com.financeapp.personalfinance.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * An account crossed its low-balance threshold: it fell below it ({@code low}) or got back to it or above.
+ * Published as an application event once the change behind it commits.
+ */
+public class LowBalanceEvent {
+
+    private Long accountId;
+    private Long userId;
+    private BigDecimal balance;
+    private BigDecimal threshold;
+    private boolean low;
+
+    // Default constructor
+    public LowBalanceEvent() {}
+
+    public LowBalanceEvent(Long accountId, Long userId, BigDecimal balance, BigDecimal threshold, boolean low) {
+        this.accountId = accountId;
+        this.userId = userId;
+        this.balance = balance;
+        this.threshold = threshold;
+        this.low = low;
+    }
+
+    // Getters and setters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public boolean isLow() {
+        return low;
+    }
+
+    public void setLow(boolean low) {
+        this.low = low;
+    }
+}
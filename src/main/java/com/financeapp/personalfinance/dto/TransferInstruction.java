@@ -0,0 +1,55 @@
+package com.financeapp.personalfinance.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One transfer in a batch transfer request
+ */
+public class TransferInstruction {
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+
+    // Default constructor
+    public TransferInstruction() {}
+
+    public TransferInstruction(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    // Getters and setters
+    public Long getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public void setFromAccountId(Long fromAccountId) {
+        this.fromAccountId = fromAccountId;
+    }
+
+    public Long getToAccountId() {
+        return toAccountId;
+    }
+
+    public void setToAccountId(Long toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferInstruction{" +
+                "fromAccountId=" + fromAccountId +
+                ", toAccountId=" + toAccountId +
+                ", amount=" + amount +
+                '}';
+    }
+}
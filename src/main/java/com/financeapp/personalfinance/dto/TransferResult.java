@@ -0,0 +1,102 @@
+package com.financeapp.personalfinance.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one transfer in a batch, reported in request order
+ */
+public class TransferResult {
+
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+
+    private int index;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private Status status;
+    private String message;
+
+    // Default constructor
+    public TransferResult() {}
+
+    public TransferResult(int index, TransferInstruction transfer, Status status, String message) {
+        this.index = index;
+        this.fromAccountId = transfer.getFromAccountId();
+        this.toAccountId = transfer.getToAccountId();
+        this.amount = transfer.getAmount();
+        this.status = status;
+        this.message = message;
+    }
+
+    public static TransferResult completed(int index, TransferInstruction transfer) {
+        return new TransferResult(index, transfer, Status.COMPLETED, "Transfer completed successfully");
+    }
+
+    public static TransferResult failed(int index, TransferInstruction transfer, String message) {
+        return new TransferResult(index, transfer, Status.FAILED, message);
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public void setFromAccountId(Long fromAccountId) {
+        this.fromAccountId = fromAccountId;
+    }
+
+    public Long getToAccountId() {
+        return toAccountId;
+    }
+
+    public void setToAccountId(Long toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferResult{" +
+                "index=" + index +
+                ", fromAccountId=" + fromAccountId +
+                ", toAccountId=" + toAccountId +
+                ", amount=" + amount +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
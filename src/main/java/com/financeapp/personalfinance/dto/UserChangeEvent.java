@@ -0,0 +1,53 @@
+package com.financeapp.personalfinance.dto;
+
+import com.financeapp.personalfinance.model.User;
+
+/**
+ * A user was created, updated or deleted. Published as an application event by the user service; listeners
+ * apply it once the change commits. Carries a copy of the searchable fields, not the entity.
+ */
+public class UserChangeEvent {
+
+    private final Long userId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final boolean deleted;
+
+    private UserChangeEvent(Long userId, String firstName, String lastName, String email, boolean deleted) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.deleted = deleted;
+    }
+
+    public static UserChangeEvent saved(User user) {
+        return new UserChangeEvent(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), false);
+    }
+
+    public static UserChangeEvent deleted(Long userId) {
+        return new UserChangeEvent(userId, null, null, null, true);
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
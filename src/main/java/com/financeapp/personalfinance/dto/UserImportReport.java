@@ -0,0 +1,78 @@
+package com.financeapp.personalfinance.dto;
+
+/**
+ * Counts of a CSV user import. The rejected rows and their reasons are at rejectedRowsLocation: a file for
+ * imports run from the command line, a download path for imports over HTTP (none if no row was rejected).
+ */
+public class UserImportReport {
+
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private String rejectedRowsLocation;
+    private long elapsedMillis;
+
+    // Default constructor
+    public UserImportReport() {}
+
+    public UserImportReport(long rowsRead, long imported, long rejected, String rejectedRowsLocation,
+                            long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejectedRowsLocation = rejectedRowsLocation;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public String getRejectedRowsLocation() {
+        return rejectedRowsLocation;
+    }
+
+    public void setRejectedRowsLocation(String rejectedRowsLocation) {
+        this.rejectedRowsLocation = rejectedRowsLocation;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "UserImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", rejectedRowsLocation='" + rejectedRowsLocation + '\'' +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
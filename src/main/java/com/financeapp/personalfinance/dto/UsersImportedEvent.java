@@ -0,0 +1,21 @@
+package com.financeapp.personalfinance.dto;
+
+import java.util.List;
+
+/**
+ * A chunk of users was inserted by the CSV import, around Hibernate and without reading back their ids; the
+ * lower-cased emails identify exactly the inserted rows. Published inside the chunk's transaction; listeners apply
+ * it once the chunk commits.
+ */
+public class UsersImportedEvent {
+
+    private final List<String> emails;
+
+    public UsersImportedEvent(List<String> emails) {
+        this.emails = List.copyOf(emails);
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+}
@@ -1,5 +1,7 @@
 package com.financeapp.personalfinance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -8,8 +10,10 @@ import java.time.LocalDateTime;
 @Table(name = "accounts")
 public class Account {
 
+    // Pooled sequence (see V6 migration) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "account_name", nullable = false, length = 100)
@@ -22,12 +26,19 @@ public class Account {
     @Column(name = "account_type", nullable = false)
     private AccountType accountType;
 
+    // Minor units (cents) of the account currency, stored as NUMERIC(15,2)
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
-    private BigDecimal balance;
+    private long balance;
 
     @Column(name = "currency", nullable = false, length = 3)
     private String currency;
 
+    // Minor units; below it the account is reported as low on balance (null: the global threshold applies)
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "low_balance_threshold", precision = 15, scale = 2)
+    private Long lowBalanceThreshold;
+
     @Column(name = "user_id", nullable = false)
     private Long userId; // Foreign key reference to User
 
@@ -49,8 +60,7 @@ public class Account {
     public Account() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
-        this.balance = BigDecimal.ZERO;
-        this.currency = "USD";
+        this.currency = Money.DEFAULT_CURRENCY;
     }
 
     public Account(String accountName, String accountNumber, AccountType accountType, Long userId) {
@@ -66,11 +76,8 @@ public class Account {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
-        if (this.balance == null) {
-            this.balance = BigDecimal.ZERO;
-        }
         if (this.currency == null) {
-            this.currency = "USD";
+            this.currency = Money.DEFAULT_CURRENCY;
         }
     }
 
@@ -112,12 +119,32 @@ public class Account {
         this.accountType = accountType;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
+        return Money.ofMinor(balance, currency);
+    }
+
+    /**
+     * Set the balance in the account currency; an account without a currency yet takes the balance's
+     */
+    public void setBalance(Money balance) {
+        if (currency == null) {
+            currency = balance.getCurrency();
+        }
+        this.balance = inAccountCurrency(balance);
+    }
+
+    /**
+     * Balance in minor units, for arithmetic without allocating a Money
+     */
+    @JsonIgnore
+    public long getBalanceMinorUnits() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+    // Request bodies carry the balance as a plain decimal in the account currency
+    @JsonSetter("balance")
+    public void setBalanceAmount(BigDecimal amount) {
+        this.balance = Money.toMinorUnits(amount);
     }
 
     public String getCurrency() {
@@ -128,6 +155,22 @@ public class Account {
         this.currency = currency;
     }
 
+    public BigDecimal getLowBalanceThreshold() {
+        return lowBalanceThreshold == null ? null : Money.toDecimal(lowBalanceThreshold);
+    }
+
+    public void setLowBalanceThreshold(BigDecimal lowBalanceThreshold) {
+        this.lowBalanceThreshold = lowBalanceThreshold == null ? null : Money.toMinorUnits(lowBalanceThreshold);
+    }
+
+    /**
+     * Own low-balance threshold in minor units, or null
+     */
+    @JsonIgnore
+    public Long getLowBalanceThresholdMinorUnits() {
+        return lowBalanceThreshold;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -152,24 +195,38 @@ public class Account {
         this.updatedAt = updatedAt;
     }
 
-    // Business methods
-    public void credit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            this.balance = this.balance.add(amount);
+    // Business methods (amounts in minor units of the account currency)
+    public void credit(long amount) {
+        if (amount > 0) {
+            this.balance = Math.addExact(this.balance, amount);
             this.updatedAt = LocalDateTime.now();
         }
     }
 
-    public boolean debit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) > 0 &&
-                this.balance.compareTo(amount) >= 0) {
-            this.balance = this.balance.subtract(amount);
+    public boolean debit(long amount) {
+        if (amount > 0 && this.balance >= amount) {
+            this.balance -= amount;
             this.updatedAt = LocalDateTime.now();
             return true;
         }
         return false;
     }
 
+    public void credit(Money amount) {
+        credit(inAccountCurrency(amount));
+    }
+
+    public boolean debit(Money amount) {
+        return debit(inAccountCurrency(amount));
+    }
+
+    private long inAccountCurrency(Money amount) {
+        if (!amount.getCurrency().equals(currency)) {
+            throw new IllegalArgumentException("Amount in " + amount.getCurrency() + " for an account in " + currency);
+        }
+        return amount.getMinorUnits();
+    }
+
     @Override
     public String toString() {
         return "Account{" +
@@ -177,7 +234,7 @@ public class Account {
                 ", accountName='" + accountName + '\'' +
                 ", accountNumber='" + accountNumber + '\'' +
                 ", accountType=" + accountType +
-                ", balance=" + balance +
+                ", balance=" + Money.toDecimal(balance) +
                 ", currency='" + currency + '\'' +
                 ", userId=" + userId +
                 ", createdAt=" + createdAt +
@@ -0,0 +1,42 @@
+package com.financeapp.personalfinance.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Total of a hot account's journaled credits that HotAccountAccumulator has applied to the accounts row, written
+ * in the same transaction as each flush. Rows are only written with SQL updates, never through the entity.
+ */
+@Entity
+@Immutable
+@Table(name = "hot_account_credits")
+public class HotAccountCredits {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "applied_credits", nullable = false, precision = 17, scale = 2)
+    private long appliedCredits;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected HotAccountCredits() {
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getAppliedCredits() {
+        return appliedCredits;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,109 @@
+package com.financeapp.personalfinance.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable journal entry for one balance movement.
+ * Rows are only ever inserted. The table, its partitions and indexes are owned by V2__transaction_journal.sql;
+ * later monthly partitions are created by JournalPartitionMaintainer.
+ */
+@Entity
+@Immutable
+@Table(name = "transactions")
+public class Transaction {
+
+    // Pooled sequence so Hibernate can assign ids without a round trip and batch the inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false, length = 20, updatable = false)
+    private TransactionType transactionType;
+
+    // Signed: positive amounts increased the balance, negative amounts decreased it
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", precision = 15, scale = 2, updatable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "counterparty_account_id", updatable = false)
+    private Long counterpartyAccountId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Enum for transaction types
+    public enum TransactionType {
+        CREDIT,
+        DEBIT,
+        TRANSFER_IN,
+        TRANSFER_OUT,
+        BALANCE_ADJUSTMENT
+    }
+
+    // JPA requires a no-arg constructor
+    protected Transaction() {
+    }
+
+    public Transaction(Long accountId, TransactionType transactionType, BigDecimal amount,
+                       BigDecimal balanceAfter, Long counterpartyAccountId) {
+        this.accountId = accountId;
+        this.transactionType = transactionType;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.counterpartyAccountId = counterpartyAccountId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters only - journal entries never change once written
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public Long getCounterpartyAccountId() {
+        return counterpartyAccountId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Transaction{" +
+                "id=" + id +
+                ", accountId=" + accountId +
+                ", transactionType=" + transactionType +
+                ", amount=" + amount +
+                ", balanceAfter=" + balanceAfter +
+                ", counterpartyAccountId=" + counterpartyAccountId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.financeapp.personalfinance.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user aggregate of the accounts table, kept current by AccountSummaryMaintainer in the same
+ * transaction as every balance change. Rows are only written with SQL updates, never through the entity.
+ * Balances are read as minor units.
+ */
+@Entity
+@Immutable
+@Table(name = "user_account_summary")
+public class UserAccountSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "account_count", nullable = false)
+    private long accountCount;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "total_balance", nullable = false, precision = 17, scale = 2)
+    private long totalBalance;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "min_balance", precision = 15, scale = 2)
+    private Long minBalance;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "max_balance", precision = 15, scale = 2)
+    private Long maxBalance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected UserAccountSummary() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    public long getTotalBalance() {
+        return totalBalance;
+    }
+
+    public Long getMinBalance() {
+        return minBalance;
+    }
+
+    public Long getMaxBalance() {
+        return maxBalance;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
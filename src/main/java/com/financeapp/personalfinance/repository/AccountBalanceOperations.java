@@ -0,0 +1,23 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.Account;
+
+import java.util.Optional;
+
+/**
+ * Balance changes applied by the database in one guarded UPDATE statement, so concurrent
+ * callers can never overwrite each other's result (no read-modify-write in Java).
+ */
+public interface AccountBalanceOperations {
+
+    /**
+     * Add to the balance (minor units) and return the updated row, or empty if the account does not exist
+     */
+    Optional<Account> creditAndGet(Long accountId, long amount);
+
+    /**
+     * Subtract from the balance only if it covers the amount; empty if the account does not exist
+     * or the balance is insufficient
+     */
+    Optional<Account> debitAndGet(Long accountId, long amount);
+}
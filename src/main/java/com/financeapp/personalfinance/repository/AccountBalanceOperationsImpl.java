@@ -0,0 +1,112 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * On PostgreSQL the updated row comes back from the UPDATE itself (RETURNING), so a credit or
+ * debit is a single round trip. Other databases (H2 in tests) run the same guarded UPDATE and
+ * then read the row back by primary key. Amounts are minor units: the native statements bind them as
+ * decimals, while the JPQL ones go through the balance attribute's converter.
+ * <p>
+ * If the caller's persistence context already holds the account, that instance is refreshed from the
+ * updated row and returned; everything else it manages is left alone.
+ */
+class AccountBalanceOperationsImpl implements AccountBalanceOperations {
+
+    private static final String CREDIT_RETURNING =
+            "UPDATE accounts SET balance = balance + :amount, updated_at = :now WHERE id = :id RETURNING *";
+
+    private static final String DEBIT_RETURNING =
+            "UPDATE accounts SET balance = balance - :amount, updated_at = :now " +
+                    "WHERE id = :id AND balance >= :amount RETURNING *";
+
+    private static final String CREDIT =
+            "UPDATE Account a SET a.balance = a.balance + :amount, a.updatedAt = :now WHERE a.id = :id";
+
+    private static final String DEBIT =
+            "UPDATE Account a SET a.balance = a.balance - :amount, a.updatedAt = :now " +
+                    "WHERE a.id = :id AND a.balance >= :amount";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean supportsReturning;
+
+    @Override
+    public Optional<Account> creditAndGet(Long accountId, long amount) {
+        return supportsReturning()
+                ? updateReturning(CREDIT_RETURNING, accountId, amount)
+                : updateThenFind(CREDIT, accountId, amount);
+    }
+
+    @Override
+    public Optional<Account> debitAndGet(Long accountId, long amount) {
+        return supportsReturning()
+                ? updateReturning(DEBIT_RETURNING, accountId, amount)
+                : updateThenFind(DEBIT, accountId, amount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Account> updateReturning(String sql, Long accountId, long amount) {
+        entityManager.flush();
+        Account managed = managedAccount(accountId);
+        List<Account> rows = entityManager.createNativeQuery(sql, Account.class)
+                .setParameter("id", accountId)
+                .setParameter("amount", Money.toDecimal(amount))
+                .setParameter("now", LocalDateTime.now())
+                .getResultList();
+        // A managed instance comes back as it was, so re-read it; otherwise the returned row is the fresh one
+        if (managed != null && !rows.isEmpty()) {
+            entityManager.refresh(managed);
+        }
+        return rows.stream().findFirst();
+    }
+
+    private Optional<Account> updateThenFind(String jpql, Long accountId, long amount) {
+        entityManager.flush();
+        int updated = entityManager.createQuery(jpql)
+                .setParameter("id", accountId)
+                .setParameter("amount", amount)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        // The row stays locked by our UPDATE until commit, so this read sees exactly our result
+        Account managed = managedAccount(accountId);
+        if (managed == null) {
+            return Optional.ofNullable(entityManager.find(Account.class, accountId));
+        }
+        entityManager.refresh(managed);
+        return Optional.of(managed);
+    }
+
+    // The account instance held by the persistence context, if any, without loading it
+    private Account managedAccount(Long accountId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityKey key = session.generateEntityKey(accountId,
+                session.getFactory().getMappingMetamodel().getEntityDescriptor(Account.class));
+        return (Account) session.getPersistenceContextInternal().getEntity(key);
+    }
+
+    private boolean supportsReturning() {
+        Boolean supported = supportsReturning;
+        if (supported == null) {
+            supported = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            supportsReturning = supported;
+        }
+        return supported;
+    }
+}
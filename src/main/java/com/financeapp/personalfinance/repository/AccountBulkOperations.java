@@ -0,0 +1,18 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.Account;
+
+import java.util.List;
+
+/**
+ * Inserts of many accounts at once, written as JDBC batches instead of one persist per entity.
+ */
+public interface AccountBulkOperations {
+
+    /**
+     * Assign ids from the account sequence and insert the accounts, skipping those whose account number is
+     * already taken; returns the skipped ones. The accounts do not become managed entities, so later changes
+     * to them are not saved.
+     */
+    List<Account> insertAll(List<Account> accounts);
+}
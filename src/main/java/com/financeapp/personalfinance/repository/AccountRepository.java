@@ -1,18 +1,25 @@
 package com.financeapp.personalfinance.repository;
 
-import com.financeapp.personalfinance.dto.AccountSummaryDto;
 import com.financeapp.personalfinance.model.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountBalanceOperations,
+        AccountBulkOperations {
 
     // Derived query methods - Spring Data JPA will automatically implement these
 
@@ -41,6 +48,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      */
     boolean existsByAccountNumber(String accountNumber);
 
+    /**
+     * Which of the given account numbers are already taken.
+     * One array parameter (= ANY) rather than an IN list, so the statement is the same for any number of values
+     */
+    @Query(value = "SELECT account_number FROM accounts WHERE account_number = ANY(:accountNumbers)", nativeQuery = true)
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") String[] accountNumbers);
+
     /**
      * Count accounts by user ID
      */
@@ -51,29 +65,24 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      */
     List<Account> findByUserIdAndCurrency(Long userId, String currency);
 
-    /**
-     * Find accounts with balance greater than specified amount
-     */
-    List<Account> findByBalanceGreaterThan(BigDecimal amount);
-
-    /**
-     * Find accounts with balance between specified amounts
-     */
-    List<Account> findByBalanceBetween(BigDecimal minBalance, BigDecimal maxBalance);
-
     // Custom queries using @Query annotation
 
+    // Sums are computed in SQL and returned as minor units: a JPQL SUM over the converted balance
+    // attribute would be read back without going through the converter
+
     /**
-     * Get total balance for a user across all accounts
+     * Get total balance for a user across all accounts (minor units)
      */
-    @Query("SELECT COALESCE(SUM(a.balance), 0) FROM Account a WHERE a.userId = :userId")
-    BigDecimal getTotalBalanceByUserId(@Param("userId") Long userId);
+    @Query(value = "SELECT CAST(COALESCE(SUM(balance), 0) * 100 AS BIGINT) FROM accounts WHERE user_id = :userId",
+            nativeQuery = true)
+    long getTotalBalanceByUserId(@Param("userId") Long userId);
 
     /**
-     * Get total balance by user ID and account type
+     * Get total balance by user ID and account type (minor units)
      */
-    @Query("SELECT COALESCE(SUM(a.balance), 0) FROM Account a WHERE a.userId = :userId AND a.accountType = :accountType")
-    BigDecimal getTotalBalanceByUserIdAndAccountType(@Param("userId") Long userId,
+    @Query(value = "SELECT CAST(COALESCE(SUM(balance), 0) * 100 AS BIGINT) FROM accounts " +
+            "WHERE user_id = :userId AND account_type = :#{#accountType.name()}", nativeQuery = true)
+    long getTotalBalanceByUserIdAndAccountType(@Param("userId") Long userId,
                                                      @Param("accountType") Account.AccountType accountType);
 
     /**
@@ -83,22 +92,22 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUserIdOrderByBalanceDesc(@Param("userId") Long userId);
 
     /**
-     * Get account statistics for a user
+     * Find accounts with low balance (less than specified amount, in minor units)
      */
-    @Query("SELECT new com.financeapp.personalfinance.dto.AccountSummaryDto(" +
-            "COUNT(a), " +
-            "COALESCE(SUM(a.balance), 0), " +
-            "CAST(COALESCE(AVG(a.balance), 0) AS java.math.BigDecimal), " +
-            "COALESCE(MAX(a.balance), 0), " +
-            "COALESCE(MIN(a.balance), 0)) " +
-            "FROM Account a WHERE a.userId = :userId")
-    AccountSummaryDto getAccountSummaryByUserId(@Param("userId") Long userId);
+    @Query("SELECT a FROM Account a WHERE a.balance < :threshold AND a.accountType != 'CREDIT_CARD'")
+    List<Account> findAccountsWithLowBalance(@Param("threshold") long threshold);
 
     /**
-     * Find accounts with low balance (less than specified amount)
+     * Stream the accounts that may be low on balance: below the global threshold (minor units) or with a
+     * threshold of their own
      */
-    @Query("SELECT a FROM Account a WHERE a.balance < :threshold AND a.accountType != 'CREDIT_CARD'")
-    List<Account> findAccountsWithLowBalance(@Param("threshold") BigDecimal threshold);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Account a WHERE a.accountType != 'CREDIT_CARD' " +
+            "AND (a.balance < :threshold OR a.lowBalanceThreshold IS NOT NULL)")
+    Stream<Account> streamLowBalanceCandidates(@Param("threshold") long threshold);
 
     /**
      * Get accounts created in the last N days
@@ -117,4 +126,53 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      */
     @Query("SELECT a.accountType, COUNT(a) FROM Account a GROUP BY a.accountType")
     List<Object[]> getAccountCountByType();
+
+    // Keyset (seek) pagination queries - each page starts at the last seen id, so page N costs the same as page 1
+
+    /**
+     * Find the next page of accounts after the given id
+     */
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Find the next page of accounts of a type after the given id
+     */
+    List<Account> findByAccountTypeAndIdGreaterThanOrderByIdAsc(Account.AccountType accountType, Long afterId, Limit limit);
+
+    /**
+     * Find the next page of low balance accounts after the given id (threshold in minor units)
+     */
+    @Query("SELECT a FROM Account a WHERE a.balance < :threshold AND a.accountType != 'CREDIT_CARD' " +
+            "AND a.id > :afterId ORDER BY a.id")
+    List<Account> findAccountsWithLowBalanceAfter(@Param("threshold") long threshold,
+                                                  @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Find the next page of accounts created in the last N days after the given id
+     */
+    @Query("SELECT a FROM Account a WHERE a.createdAt >= CURRENT_TIMESTAMP - :days DAY AND a.id > :afterId ORDER BY a.id")
+    List<Account> findRecentAccountsAfter(@Param("days") int days, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Find the next page of accounts not updated in the last N days after the given id
+     */
+    @Query("SELECT a FROM Account a WHERE a.updatedAt < CURRENT_TIMESTAMP - :days DAY AND a.id > :afterId ORDER BY a.id")
+    List<Account> findInactiveAccountsAfter(@Param("days") int days, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Stream all accounts in id order through a forward-only cursor (must be consumed inside a transaction)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Account a ORDER BY a.id")
+    Stream<Account> streamAllOrderById();
+
+    /**
+     * Load and lock a set of accounts in one query; rows are locked in id order so concurrent batches cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
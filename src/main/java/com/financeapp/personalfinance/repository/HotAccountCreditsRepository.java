@@ -0,0 +1,33 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.HotAccountCredits;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface HotAccountCreditsRepository extends JpaRepository<HotAccountCredits, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO hot_account_credits (account_id, applied_credits, updated_at) " +
+            "VALUES (:accountId, 0, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertEmptyIfMissing(@Param("accountId") Long accountId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE hot_account_credits SET applied_credits = applied_credits + :amount, updated_at = :now " +
+            "WHERE account_id = :accountId", nativeQuery = true)
+    int addApplied(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Applied total, with the row locked until the transaction ends
+     */
+    @Query(value = "SELECT applied_credits FROM hot_account_credits WHERE account_id = :accountId FOR UPDATE",
+            nativeQuery = true)
+    BigDecimal findAppliedForUpdate(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,83 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking (R2DBC) versions of the {@link AccountRepository} lookups served by the reactive read API.
+ * Rows are mapped to the same {@link Account} objects, which are only read, never saved, through here.
+ */
+public class ReactiveAccountRepository {
+
+    private static final String SELECT_ACCOUNT = "SELECT id, account_name, account_number, account_type, balance, " +
+            "currency, low_balance_threshold, user_id, created_at, updated_at FROM accounts ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAccountRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Find account by id
+     */
+    public Mono<Account> findById(Long id) {
+        return databaseClient.sql(SELECT_ACCOUNT + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    /**
+     * Find account by account number
+     */
+    public Mono<Account> findByAccountNumber(String accountNumber) {
+        return databaseClient.sql(SELECT_ACCOUNT + "WHERE account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    /**
+     * Find all accounts for a specific user
+     */
+    public Flux<Account> findByUserId(Long userId) {
+        return databaseClient.sql(SELECT_ACCOUNT + "WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(ReactiveAccountRepository::toAccount)
+                .all();
+    }
+
+    /**
+     * Total balance of a user's accounts (minor units), from the maintained summary row like the blocking API
+     */
+    public Mono<Long> getTotalBalanceByUserId(Long userId) {
+        return databaseClient.sql("SELECT total_balance FROM user_account_summary WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> Money.toMinorUnits(row.get("total_balance", BigDecimal.class)))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    private static Account toAccount(Readable row) {
+        Account account = new Account();
+        account.setId(row.get("id", Long.class));
+        account.setAccountName(row.get("account_name", String.class));
+        account.setAccountNumber(row.get("account_number", String.class));
+        account.setAccountType(Account.AccountType.valueOf(row.get("account_type", String.class)));
+        account.setCurrency(row.get("currency", String.class));
+        account.setBalance(Money.of(row.get("balance", BigDecimal.class), account.getCurrency()));
+        account.setLowBalanceThreshold(row.get("low_balance_threshold", BigDecimal.class));
+        account.setUserId(row.get("user_id", Long.class));
+        account.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        account.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return account;
+    }
+}
@@ -0,0 +1,14 @@
+package com.financeapp.personalfinance.repository;
+
+/**
+ * Maintenance of the monthly journal partitions (see V10__transaction_partition_maintenance.sql)
+ */
+public interface TransactionPartitionOperations {
+
+    /**
+     * Create the missing partitions for the current month and the given number of months after it, moving
+     * their rows out of the default partition; returns how many were created. A no-op without partitioning
+     * (H2 in tests).
+     */
+    int createPartitions(int monthsAhead);
+}
@@ -0,0 +1,32 @@
+package com.financeapp.personalfinance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Calls create_transactions_partitions on PostgreSQL. Other databases (H2 in tests) get the journal table
+ * from the entity, unpartitioned, so there is nothing to create.
+ */
+class TransactionPartitionOperationsImpl implements TransactionPartitionOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int createPartitions(int monthsAhead) {
+        if (!isPostgreSQL()) {
+            return 0;
+        }
+        Number created = (Number) entityManager.createNativeQuery("SELECT create_transactions_partitions(:monthsAhead)")
+                .setParameter("monthsAhead", monthsAhead)
+                .getSingleResult();
+        return created.intValue();
+    }
+
+    private boolean isPostgreSQL() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,29 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.Transaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionPartitionOperations {
+
+    /**
+     * Find the next page of an account's journal, newest first, before the given id
+     */
+    List<Transaction> findByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long beforeId, Limit limit);
+
+    /**
+     * Total of the credits a hot account has journaled: those written without a balance, which went through
+     * the accumulator
+     */
+    @Query(value = "SELECT COALESCE(SUM(amount), 0) FROM transactions " +
+            "WHERE account_id = :accountId AND transaction_type = 'CREDIT' AND balance_after IS NULL",
+            nativeQuery = true)
+    BigDecimal sumHotCredits(@Param("accountId") Long accountId);
+}
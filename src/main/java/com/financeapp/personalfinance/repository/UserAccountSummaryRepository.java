@@ -0,0 +1,91 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.UserAccountSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Summary rows are changed with single UPDATE statements so concurrent writers for the same user
+ * serialize on the row lock instead of overwriting each other. Pending entity changes are flushed first
+ * because the min/max recomputations read the accounts table.
+ */
+@Repository
+public interface UserAccountSummaryRepository extends JpaRepository<UserAccountSummary, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_account_summary (user_id, account_count, total_balance, updated_at) " +
+            "VALUES (:userId, 0, 0, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertEmptyIfMissing(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Add to the count and total; accounts now holding lowestBalance..highestBalance can only widen the min/max
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_account_summary SET " +
+            "account_count = account_count + :countDelta, " +
+            "total_balance = total_balance + :balanceDelta, " +
+            "min_balance = LEAST(COALESCE(min_balance, :lowestBalance), :lowestBalance), " +
+            "max_balance = GREATEST(COALESCE(max_balance, :highestBalance), :highestBalance), " +
+            "updated_at = :now " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int applyChange(@Param("userId") Long userId, @Param("countDelta") long countDelta,
+                    @Param("balanceDelta") BigDecimal balanceDelta, @Param("lowestBalance") BigDecimal lowestBalance,
+                    @Param("highestBalance") BigDecimal highestBalance, @Param("now") LocalDateTime now);
+
+    /**
+     * Add to the count and total only, for changes that leave no new balance behind (deleted accounts)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_account_summary SET " +
+            "account_count = account_count + :countDelta, " +
+            "total_balance = total_balance + :balanceDelta, " +
+            "updated_at = :now " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("countDelta") long countDelta,
+                   @Param("balanceDelta") BigDecimal balanceDelta, @Param("now") LocalDateTime now);
+
+    /**
+     * Recompute the minimum, but only when the balance that moved away was the minimum
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_account_summary SET " +
+            "min_balance = (SELECT MIN(a.balance) FROM accounts a WHERE a.user_id = :userId) " +
+            "WHERE user_id = :userId AND min_balance = :oldBalance", nativeQuery = true)
+    int recomputeMinIfEqual(@Param("userId") Long userId, @Param("oldBalance") BigDecimal oldBalance);
+
+    /**
+     * Recompute the maximum, but only when the balance that moved away was the maximum
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_account_summary SET " +
+            "max_balance = (SELECT MAX(a.balance) FROM accounts a WHERE a.user_id = :userId) " +
+            "WHERE user_id = :userId AND max_balance = :oldBalance", nativeQuery = true)
+    int recomputeMaxIfEqual(@Param("userId") Long userId, @Param("oldBalance") BigDecimal oldBalance);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_account_summary SET " +
+            "account_count = (SELECT COUNT(*) FROM accounts a WHERE a.user_id = :userId), " +
+            "total_balance = (SELECT COALESCE(SUM(a.balance), 0) FROM accounts a WHERE a.user_id = :userId), " +
+            "min_balance = (SELECT MIN(a.balance) FROM accounts a WHERE a.user_id = :userId), " +
+            "max_balance = (SELECT MAX(a.balance) FROM accounts a WHERE a.user_id = :userId), " +
+            "updated_at = :now " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int recomputeForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM user_account_summary", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_account_summary " +
+            "(user_id, account_count, total_balance, min_balance, max_balance, updated_at) " +
+            "SELECT a.user_id, COUNT(*), SUM(a.balance), MIN(a.balance), MAX(a.balance), :now " +
+            "FROM accounts a GROUP BY a.user_id", nativeQuery = true)
+    int insertAllFromAccounts(@Param("now") LocalDateTime now);
+}
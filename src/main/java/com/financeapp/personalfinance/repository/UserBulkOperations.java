@@ -0,0 +1,22 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.User;
+
+import java.util.List;
+
+/**
+ * Inserts of many users at once, written as JDBC batches instead of one persist per entity.
+ */
+public interface UserBulkOperations {
+
+    /**
+     * Insert the users. Ids are assigned by the database and not read back, and the users do not become
+     * managed entities.
+     */
+    void insertAll(List<User> users);
+
+    /**
+     * Insert the user unless its email is taken (or any other unique key conflicts); true if it was inserted
+     */
+    boolean insertIfAbsent(User user);
+}
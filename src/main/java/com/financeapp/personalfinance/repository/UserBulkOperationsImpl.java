@@ -0,0 +1,68 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * User ids are an identity column, which hibernate cannot batch (it needs each id right after its INSERT).
+ * Callers of a bulk insert do not need the ids, so the rows go out through the session's connection as plain
+ * batches of {@value #BATCH_SIZE} and the database fills in the ids.
+ */
+class UserBulkOperationsImpl implements UserBulkOperations {
+
+    private static final String INSERT =
+            "INSERT INTO users (first_name, last_name, email, phone_number, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IF_ABSENT = INSERT + " ON CONFLICT DO NOTHING";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                int pending = 0;
+                for (User user : users) {
+                    insert.setString(1, user.getFirstName());
+                    insert.setString(2, user.getLastName());
+                    insert.setString(3, user.getEmail());
+                    insert.setString(4, user.getPhoneNumber());
+                    insert.setObject(5, user.getCreatedAt());
+                    insert.setObject(6, user.getUpdatedAt());
+                    insert.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean insertIfAbsent(User user) {
+        return entityManager.createNativeQuery(INSERT_IF_ABSENT)
+                .setParameter(1, user.getFirstName())
+                .setParameter(2, user.getLastName())
+                .setParameter(3, user.getEmail())
+                .setParameter(4, user.getPhoneNumber())
+                .setParameter(5, user.getCreatedAt())
+                .setParameter(6, user.getUpdatedAt())
+                .executeUpdate() == 1;
+    }
+}
@@ -0,0 +1,274 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.dto.UserChangeEvent;
+import com.financeapp.personalfinance.dto.UsersImportedEvent;
+import com.financeapp.personalfinance.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory n-gram index behind the user search on databases without pg_trgm (H2 in tests and local runs).
+ * It follows the PostgreSQL query of {@link UserSearchOperationsImpl}: prefix candidates are read in order from
+ * a sorted set per field, substring candidates from trigram postings, and they are ranked the same way.
+ * <p>
+ * Loaded from the users table at startup and kept current by the {@link UserChangeEvent}s of the user service
+ * once their changes commit; rows inserted around Hibernate (the bulk import) are read back by the emails of
+ * their {@link UsersImportedEvent}. Ids do not commit in order, so no id cursor can tell which rows are new once
+ * the index is loaded. Only ids come out of the index, the users themselves are always read from the database.
+ */
+@Component
+public class UserNgramIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserNgramIndex.class);
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final int GRAM = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Key> firstNames = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Key> lastNames = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Key> emails = new ConcurrentSkipListSet<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private volatile Boolean enabled;
+    private long highestId;
+
+    public UserNgramIndex(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether searches go through this index, i.e. the database is not PostgreSQL
+     */
+    public boolean isEnabled() {
+        Boolean supported = enabled;
+        if (supported == null) {
+            supported = !(entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect);
+            enabled = supported;
+        }
+        return supported;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (isEnabled()) {
+            int loaded = catchUp();
+            logger.info("User search index loaded with {} users", loaded);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void userChanged(UserChangeEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (event.isDeleted()) {
+            remove(event.getUserId());
+        } else {
+            index(event.getUserId(), event.getFirstName(), event.getLastName(), event.getEmail());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void usersImported(UsersImportedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<String> emails = event.getEmails();
+        for (int from = 0; from < emails.size(); from += LOAD_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + LOAD_CHUNK_SIZE, emails.size()));
+            List<User> users = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT u FROM User u WHERE LOWER(u.email) IN :emails", User.class)
+                    .setParameter("emails", chunk)
+                    .getResultList());
+            users.forEach(this::index);
+        }
+    }
+
+    /**
+     * Index the users after the highest id read by earlier loads; at startup, before any change is indexed,
+     * that is every user. Returns how many were added.
+     */
+    public synchronized int catchUp() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int added = 0;
+        List<User> users;
+        do {
+            long after = highestId;
+            users = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT u FROM User u WHERE u.id > :after ORDER BY u.id", User.class)
+                    .setParameter("after", after)
+                    .setMaxResults(LOAD_CHUNK_SIZE)
+                    .getResultList());
+            for (User user : users) {
+                index(user);
+                highestId = Math.max(highestId, user.getId());
+            }
+            added += users.size();
+        } while (users.size() == LOAD_CHUNK_SIZE);
+        return added;
+    }
+
+    /**
+     * Ids of one page of results for a lower-cased, trimmed term, best matches first
+     */
+    public List<Long> search(String term, int offset, int limit) {
+        Map<Long, Entry> candidates = new HashMap<>();
+        collectPrefixMatches(firstNames, term, candidates);
+        collectPrefixMatches(lastNames, term, candidates);
+        collectPrefixMatches(emails, term, candidates);
+        if (term.length() >= UserSearchOperations.MIN_SUBSTRING_LENGTH) {
+            collectSubstringMatches(term, candidates);
+        }
+        return candidates.values().stream()
+                .sorted(ranking(term))
+                .skip(offset)
+                .limit(limit)
+                .map(Entry::id)
+                .toList();
+    }
+
+    void index(User user) {
+        index(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+    }
+
+    synchronized void index(Long id, String firstName, String lastName, String email) {
+        remove(id);
+        Entry entry = new Entry(id, lower(firstName), lower(lastName), lower(email));
+        entries.put(entry.id(), entry);
+        firstNames.add(new Key(entry.firstName(), entry.id()));
+        lastNames.add(new Key(entry.lastName(), entry.id()));
+        emails.add(new Key(entry.email(), entry.id()));
+        for (String gram : grams(entry.text())) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        }
+    }
+
+    synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        firstNames.remove(new Key(entry.firstName(), id));
+        lastNames.remove(new Key(entry.lastName(), id));
+        emails.remove(new Key(entry.email(), id));
+        for (String gram : grams(entry.text())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void collectPrefixMatches(NavigableSet<Key> keys, String term, Map<Long, Entry> candidates) {
+        int taken = 0;
+        NavigableSet<Key> matches = keys.subSet(new Key(term, Long.MIN_VALUE), true,
+                new Key(term + Character.MAX_VALUE, Long.MIN_VALUE), false);
+        for (Key key : matches) {
+            Entry entry = entries.get(key.id());
+            if (entry != null) {
+                candidates.put(entry.id(), entry);
+            }
+            if (++taken == UserSearchOperations.CANDIDATES_PER_KIND) {
+                return;
+            }
+        }
+    }
+
+    private void collectSubstringMatches(String term, Map<Long, Entry> candidates) {
+        // Walk the rarest trigram's postings and check the rest on the text itself
+        Set<Long> rarest = null;
+        for (String gram : grams(term)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return;
+            }
+            if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        int taken = 0;
+        for (Long id : rarest) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.text().contains(term)) {
+                candidates.put(id, entry);
+                if (++taken == UserSearchOperations.CANDIDATES_PER_KIND) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Same order as the PostgreSQL query: exact field match, prefix match, other substring match; then how early
+    // the term appears, shorter names, id
+    private static Comparator<Entry> ranking(String term) {
+        return Comparator.<Entry>comparingInt(entry -> entry.rank(term))
+                .thenComparingInt(entry -> entry.text().indexOf(term))
+                .thenComparingInt(entry -> entry.firstName().length() + entry.lastName().length())
+                .thenComparingLong(Entry::id);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(long id, String firstName, String lastName, String email) {
+
+        String text() {
+            return firstName + ' ' + lastName + ' ' + email;
+        }
+
+        int rank(String term) {
+            if (firstName.equals(term) || lastName.equals(term) || email.equals(term)) {
+                return 0;
+            }
+            if (firstName.startsWith(term) || lastName.startsWith(term) || email.startsWith(term)) {
+                return 1;
+            }
+            return 2;
+        }
+    }
+
+    private record Key(String value, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byValue = value.compareTo(other.value);
+            return byValue != 0 ? byValue : Long.compare(id, other.id);
+        }
+    }
+}
@@ -1,16 +1,50 @@
 package com.financeapp.personalfinance.repository;
 
 import com.financeapp.personalfinance.model.User;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBulkOperations,
+        UserSearchOperations {
     //Optional<User> findByUsername(String username);
-    boolean existsByEmail(String email);
-    Optional<User> findByEmail(String email);
-    List<User> findByFirstNameContainingIgnoreCase(String firstName);
+    // Emails match case-insensitively, served by the lower(email) index
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email) AND u.id <> :id")
+    boolean existsByEmailIgnoreCaseAndIdNot(@Param("email") String email, @Param("id") Long id);
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+    // Which of the given lower-cased emails are taken (one array parameter, served by the lower(email) index)
+    @Query(value = "SELECT lower(email) FROM users WHERE lower(email) = ANY(:emails)", nativeQuery = true)
+    List<String> findExistingEmails(@Param("emails") String[] emails);
+    // Which of the given user ids exist (one array parameter, whatever the number of ids)
+    @Query(value = "SELECT id FROM users WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Long> findExistingIds(@Param("ids") Long[] ids);
+    // Keyset pagination: next page of users after the given id
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    // Every email, lower-cased, read with a cursor to warm the signup email filter (inside a transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lower(u.email) FROM User u")
+    Stream<String> streamAllEmails();
+    // Forward-only cursor over all users in id order (must be consumed inside a transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllOrderById();
 }
@@ -0,0 +1,27 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.User;
+
+import java.util.List;
+
+/**
+ * Ranked search over users' first name, last name and email.
+ * <p>
+ * Candidates are the first {@value #CANDIDATES_PER_KIND} users whose first name, last name or email starts
+ * with the term (each in index order), plus, for terms of {@value #MIN_SUBSTRING_LENGTH} or more characters,
+ * {@value #CANDIDATES_PER_KIND} users with the term anywhere in those fields. They are ranked exact field
+ * matches first, then prefix matches, then other substring matches; within a rank by how early the term
+ * appears, shorter names first, then id. Ranking a bounded candidate set keeps a search fast however many
+ * users match, so only the first {@value #MAX_RESULTS} results are served.
+ */
+public interface UserSearchOperations {
+
+    int CANDIDATES_PER_KIND = 200;
+    int MIN_SUBSTRING_LENGTH = 3;
+    int MAX_RESULTS = CANDIDATES_PER_KIND;
+
+    /**
+     * One page of results for a lower-cased, trimmed term
+     */
+    List<User> search(String term, int offset, int limit);
+}
@@ -0,0 +1,86 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * On PostgreSQL the search runs on the V7 indexes: the prefix candidates come from the text_pattern_ops indexes
+ * and the substring candidates from the pg_trgm GIN index. Terms shorter than three characters have no
+ * trigram to look up, so they only match prefixes. Other databases (H2 in tests) take the ids from the
+ * in-memory {@link UserNgramIndex} and read the users by primary key.
+ */
+class UserSearchOperationsImpl implements UserSearchOperations {
+
+    private static final String SEARCH_TEXT = "lower(first_name || ' ' || last_name || ' ' || email)";
+
+    private static final String PREFIX_CANDIDATES =
+            "(SELECT * FROM users WHERE lower(first_name) LIKE :prefix ORDER BY lower(first_name) USING ~<~ LIMIT :candidates) " +
+            "UNION (SELECT * FROM users WHERE lower(last_name) LIKE :prefix ORDER BY lower(last_name) USING ~<~ LIMIT :candidates) " +
+            "UNION (SELECT * FROM users WHERE lower(email) LIKE :prefix ORDER BY lower(email) USING ~<~ LIMIT :candidates)";
+
+    private static final String SUBSTRING_CANDIDATES =
+            " UNION (SELECT * FROM users WHERE " + SEARCH_TEXT + " LIKE :substring LIMIT :candidates)";
+
+    private static final String RANKED =
+            "SELECT * FROM (%s) u ORDER BY " +
+            "CASE WHEN lower(first_name) = :term OR lower(last_name) = :term OR lower(email) = :term THEN 0 " +
+            "WHEN lower(first_name) LIKE :prefix OR lower(last_name) LIKE :prefix OR lower(email) LIKE :prefix THEN 1 " +
+            "ELSE 2 END, strpos(" + SEARCH_TEXT + ", :term), length(first_name || last_name), id " +
+            "LIMIT :limit OFFSET :offset";
+
+    private static final String PREFIX_SEARCH = RANKED.formatted(PREFIX_CANDIDATES);
+    private static final String FULL_SEARCH = RANKED.formatted(PREFIX_CANDIDATES + SUBSTRING_CANDIDATES);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserNgramIndex ngramIndex;
+
+    @Override
+    public List<User> search(String term, int offset, int limit) {
+        if (ngramIndex.isEnabled()) {
+            return findInOrder(ngramIndex.search(term, offset, limit));
+        }
+        return searchIndexed(term, offset, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> searchIndexed(String term, int offset, int limit) {
+        boolean substring = term.length() >= MIN_SUBSTRING_LENGTH;
+        // LIKE treats backslash as the escape character by default
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        Query query = entityManager.createNativeQuery(substring ? FULL_SEARCH : PREFIX_SEARCH, User.class)
+                .setParameter("term", term)
+                .setParameter("prefix", escaped + "%")
+                .setParameter("candidates", CANDIDATES_PER_KIND)
+                .setParameter("limit", limit)
+                .setParameter("offset", offset);
+        if (substring) {
+            query.setParameter("substring", "%" + escaped + "%");
+        }
+        return query.getResultList();
+    }
+
+    private List<User> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : entityManager.createQuery("SELECT u FROM User u WHERE u.id IN :ids", User.class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            users.put(user.getId(), user);
+        }
+        // Users deleted since the index saw them are left out
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -1,28 +1,85 @@
 package com.financeapp.personalfinance.service;
 
+import com.financeapp.personalfinance.config.CacheConfig;
+import com.financeapp.personalfinance.config.CacheGenerations;
+import com.financeapp.personalfinance.config.ReadFromPrimary;
 import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.Transaction;
 import com.financeapp.personalfinance.repository.AccountRepository;
+import com.financeapp.personalfinance.dto.AccountCreationResult;
 import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.TransferInstruction;
+import com.financeapp.personalfinance.dto.TransferResult;
+import com.financeapp.personalfinance.repository.TransactionRepository;
 import com.financeapp.personalfinance.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AccountService {
 
+    public static final int MAX_BATCH_TRANSFERS = 5000;
+    public static final int MAX_BULK_ACCOUNTS = 10000;
+
     @Autowired
     private AccountRepository accountRepository;
 
     @Autowired
     private UserRepository userRepository; // Assuming you have this from your User implementation
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private NdjsonStreamWriter ndjsonStreamWriter;
+
+    @Autowired
+    private HotAccountAccumulator hotAccounts;
+
+    @Autowired
+    private AccountSummaryMaintainer accountSummaries;
+
+    @Autowired
+    private BalanceEventHub balanceEvents;
+
+    @Autowired
+    private LowBalanceIndex lowBalances;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Create a new account
      */
@@ -41,30 +98,137 @@ public class AccountService {
         }
 
         // Set default values if not provided
-        if (account.getBalance() == null) {
-            account.setBalance(BigDecimal.ZERO);
-        }
         if (account.getCurrency() == null) {
-            account.setCurrency("USD");
+            account.setCurrency(Money.DEFAULT_CURRENCY);
         }
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountSummaries.accountCreated(saved);
+        lowBalances.accountCreated(saved);
+        return saved;
+    }
+
+    /**
+     * Create many accounts in one transaction.
+     * Owners and account numbers are checked with one query each for all rows instead of two queries per
+     * account, and the accepted accounts are inserted as JDBC batches rather than persisted one by one.
+     * A rejected row is reported and skipped without affecting the others.
+     */
+    public List<AccountCreationResult> createAccounts(List<Account> accounts) {
+        if (accounts == null || accounts.isEmpty()) {
+            throw new IllegalArgumentException("At least one account is required");
+        }
+        if (accounts.size() > MAX_BULK_ACCOUNTS) {
+            throw new IllegalArgumentException("A bulk request cannot contain more than " + MAX_BULK_ACCOUNTS + " accounts");
+        }
+
+        AccountCreationResult[] results = new AccountCreationResult[accounts.size()];
+        Set<Long> userIds = new HashSet<>();
+        Set<String> accountNumbers = new HashSet<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            try {
+                if (account == null) {
+                    throw new IllegalArgumentException("Account data is required");
+                }
+                validateAccountData(account);
+                userIds.add(account.getUserId());
+                accountNumbers.add(account.getAccountNumber());
+            } catch (IllegalArgumentException e) {
+                results[i] = AccountCreationResult.rejected(i, account != null ? account.getAccountNumber() : null,
+                        e.getMessage());
+            }
+        }
+
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(userIds.toArray(new Long[0])));
+        // Grows with each accepted row, so a number repeated within the request is rejected too
+        Set<String> takenNumbers = new HashSet<>(
+                accountRepository.findExistingAccountNumbers(accountNumbers.toArray(new String[0])));
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Account account = accounts.get(i);
+            if (!existingUsers.contains(account.getUserId())) {
+                results[i] = AccountCreationResult.rejected(i, account.getAccountNumber(),
+                        "User not found with id: " + account.getUserId());
+            } else if (!takenNumbers.add(account.getAccountNumber())) {
+                results[i] = AccountCreationResult.rejected(i, account.getAccountNumber(),
+                        "Account with this account number already exists");
+            } else {
+                if (account.getCurrency() == null) {
+                    account.setCurrency(Money.DEFAULT_CURRENCY);
+                }
+                acceptedIndexes.add(i);
+            }
+        }
+
+        List<Account> created = new ArrayList<>(acceptedIndexes.size());
+        for (int index : acceptedIndexes) {
+            created.add(accounts.get(index));
+        }
+        // Numbers taken by a concurrent insert since the lookup above are skipped by the insert itself
+        Set<Account> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        skipped.addAll(accountRepository.insertAll(created));
+        for (int i = 0; i < created.size(); i++) {
+            Account account = created.get(i);
+            if (skipped.contains(account)) {
+                results[acceptedIndexes.get(i)] = AccountCreationResult.rejected(acceptedIndexes.get(i),
+                        account.getAccountNumber(), "Account with this account number already exists");
+                continue;
+            }
+            accountSummaries.accountCreated(account);
+            lowBalances.accountCreated(account);
+            results[acceptedIndexes.get(i)] = AccountCreationResult.created(acceptedIndexes.get(i),
+                    account.getAccountNumber(), account.getId());
+        }
+        return Arrays.asList(results);
     }
 
     /**
      * Get account by ID
      */
     @Transactional(readOnly = true)
+    @ReadFromPrimary
     public Optional<Account> getAccountById(Long id) {
-        return accountRepository.findById(id);
+        if (hotAccounts.isHot(id)) {
+            return findWithPendingCredits(id);
+        }
+        Account cached = accountCache().get(id, Account.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = cacheGenerations.current(accountCache(), id);
+        return accountRepository.findById(id).map(account -> cacheAccount(account, generation));
     }
 
     /**
      * Get account by account number
      */
     @Transactional(readOnly = true)
+    @ReadFromPrimary
     public Optional<Account> getAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber);
+        Cache accountIdsByNumber = cacheManager.getCache(CacheConfig.ACCOUNT_IDS_BY_NUMBER);
+        Long cachedId = accountIdsByNumber.get(accountNumber, Long.class);
+        if (cachedId != null) {
+            Optional<Account> account = getAccountById(cachedId);
+            // The number may have been moved to another account since it was cached
+            if (account.isPresent() && accountNumber.equals(account.get().getAccountNumber())) {
+                return account;
+            }
+        }
+
+        Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
+        if (account.isPresent() && hotAccounts.isHot(account.get().getId())) {
+            // Detach so the consistent read below loads the row again
+            entityManager.detach(account.get());
+            return findWithPendingCredits(account.get().getId());
+        }
+        // Only the id is cached here: its generation could not be taken before the read, so the row is left
+        // for the next lookup by id to cache
+        account.ifPresent(found -> accountIdsByNumber.put(accountNumber, found.getId()));
+        return account;
     }
 
     /**
@@ -75,6 +239,27 @@ public class AccountService {
         return accountRepository.findAll();
     }
 
+    /**
+     * Get a page of all accounts, ordered by id, starting after the given cursor
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> getAccountsPage(Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        List<Account> rows = accountRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Account::getId);
+    }
+
+    /**
+     * Export all accounts as newline-delimited JSON, streamed from a database cursor
+     */
+    @Transactional(readOnly = true)
+    public long exportAccounts(OutputStream out) throws IOException {
+        try (Stream<Account> accounts = accountRepository.streamAllOrderById()) {
+            return ndjsonStreamWriter.write(accounts, Account.class, out);
+        }
+    }
+
     /**
      * Get accounts by user ID
      */
@@ -91,6 +276,17 @@ public class AccountService {
         return accountRepository.findByAccountType(accountType);
     }
 
+    /**
+     * Get a page of accounts by type
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> getAccountsByTypePage(Account.AccountType accountType, Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        List<Account> rows = accountRepository.findByAccountTypeAndIdGreaterThanOrderByIdAsc(
+                accountType, KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Account::getId);
+    }
+
     /**
      * Get accounts by user ID and type
      */
@@ -117,37 +313,55 @@ public class AccountService {
         existingAccount.setAccountNumber(updatedAccount.getAccountNumber());
         existingAccount.setAccountType(updatedAccount.getAccountType());
         existingAccount.setCurrency(updatedAccount.getCurrency());
+        existingAccount.setLowBalanceThreshold(updatedAccount.getLowBalanceThreshold());
         existingAccount.setUpdatedAt(LocalDateTime.now());
 
-        return accountRepository.save(existingAccount);
+        evictAccount(id);
+        Account saved = accountRepository.save(existingAccount);
+        lowBalances.accountChanged(saved);
+        return saved;
     }
 
     /**
      * Update account balance
      */
     public Account updateBalance(Long accountId, BigDecimal newBalance) {
+        hotAccounts.drainIntoCurrentTransaction(accountId);
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
 
-        account.setBalance(newBalance);
+        long oldBalance = account.getBalanceMinorUnits();
+        long newBalanceMinorUnits = Money.toMinorUnits(newBalance);
+        long adjustment = Math.subtractExact(newBalanceMinorUnits, oldBalance);
+        account.setBalance(Money.ofMinor(newBalanceMinorUnits, account.getCurrency()));
         account.setUpdatedAt(LocalDateTime.now());
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountSummaries.balanceChanged(saved.getUserId(), oldBalance, newBalanceMinorUnits);
+        balanceEvents.balanceChanged(saved);
+        lowBalances.accountChanged(saved);
+        evictAccount(accountId);
+        recordTransaction(saved, Transaction.TransactionType.BALANCE_ADJUSTMENT, adjustment, null);
+        return saved;
     }
 
     /**
      * Delete account
      */
     public boolean deleteAccount(Long id) {
+        hotAccounts.drainIntoCurrentTransaction(id);
         Optional<Account> accountOpt = accountRepository.findById(id);
         if (accountOpt.isPresent()) {
             Account account = accountOpt.get();
 
             // Business rule: Don't allow deletion of accounts with non-zero balance
-            if (account.getBalance().compareTo(BigDecimal.ZERO) != 0) {
+            if (account.getBalanceMinorUnits() != 0) {
                 throw new IllegalStateException("Cannot delete account with non-zero balance");
             }
 
             accountRepository.deleteById(id);
+            accountSummaries.accountDeleted(account);
+            lowBalances.accountDeleted(account);
+            evictAccount(id);
             return true;
         }
         return false;
@@ -158,7 +372,12 @@ public class AccountService {
      */
     @Transactional(readOnly = true)
     public BigDecimal getTotalBalanceByUserId(Long userId) {
-        return accountRepository.getTotalBalanceByUserId(userId);
+        List<Long> hotAccountIds = hotAccounts.hotAccountIdsForUser(userId);
+        if (hotAccountIds.isEmpty()) {
+            return Money.toDecimal(accountSummaries.getTotalBalance(userId));
+        }
+        return Money.toDecimal(hotAccounts.readConsistent(hotAccountIds, () -> Math.addExact(
+                accountSummaries.getTotalBalance(userId), hotAccounts.pendingAmountForUser(userId))));
     }
 
     /**
@@ -166,7 +385,7 @@ public class AccountService {
      */
     @Transactional(readOnly = true)
     public BigDecimal getTotalBalanceByUserIdAndType(Long userId, Account.AccountType accountType) {
-        return accountRepository.getTotalBalanceByUserIdAndAccountType(userId, accountType);
+        return Money.toDecimal(accountRepository.getTotalBalanceByUserIdAndAccountType(userId, accountType));
     }
 
     /**
@@ -190,7 +409,48 @@ public class AccountService {
      */
     @Transactional(readOnly = true)
     public List<Account> getAccountsWithLowBalance(BigDecimal threshold) {
-        return accountRepository.findAccountsWithLowBalance(threshold);
+        return accountRepository.findAccountsWithLowBalance(thresholdMinorUnits(threshold));
+    }
+
+    /**
+     * Get a page of accounts with low balance. Without a threshold, the accounts below their own threshold (or the
+     * global one) are listed from the low-balance index; until it is loaded, those below the global threshold.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> getAccountsWithLowBalancePage(BigDecimal threshold, Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        if (threshold == null && lowBalances.isReady()) {
+            return lowBalancePageFromIndex(after, limit);
+        }
+        if (threshold == null) {
+            threshold = lowBalances.getThreshold();
+        }
+        List<Account> rows = accountRepository.findAccountsWithLowBalanceAfter(
+                thresholdMinorUnits(threshold), KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Account::getId);
+    }
+
+    // The cursor follows the index, so rows that changed or went missing since it was read do not end the listing
+    // early; they are left out of the page, and missing ones are dropped from the index
+    private KeysetPage<Account> lowBalancePageFromIndex(Long after, int limit) {
+        List<Long> ids = lowBalances.page(after, limit + 1);
+        List<Long> pageIds = ids.size() > limit ? ids.subList(0, limit) : ids;
+        Map<Long, Account> rows = new HashMap<>();
+        accountRepository.findAllById(pageIds).forEach(account -> rows.put(account.getId(), account));
+        List<Account> items = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : pageIds) {
+            Account account = rows.get(id);
+            if (account == null) {
+                missing.add(id);
+            } else if (lowBalances.isLow(account)) {
+                items.add(account);
+            }
+        }
+        if (!missing.isEmpty()) {
+            lowBalances.dropMissing(missing);
+        }
+        return new KeysetPage<>(items, ids.size() > limit ? pageIds.get(limit - 1) : null);
     }
 
     /**
@@ -201,6 +461,17 @@ public class AccountService {
         return accountRepository.findRecentAccounts(days);
     }
 
+    /**
+     * Get a page of recent accounts (created in last N days)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> getRecentAccountsPage(int days, Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        List<Account> rows = accountRepository.findRecentAccountsAfter(
+                days, KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Account::getId);
+    }
+
     /**
      * Get inactive accounts (not updated in last N days)
      */
@@ -209,6 +480,17 @@ public class AccountService {
         return accountRepository.findInactiveAccounts(days);
     }
 
+    /**
+     * Get a page of inactive accounts (not updated in last N days)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> getInactiveAccountsPage(int days, Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        List<Account> rows = accountRepository.findInactiveAccountsAfter(
+                days, KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Account::getId);
+    }
+
     /**
      * Get accounts by user ID ordered by balance
      */
@@ -221,58 +503,103 @@ public class AccountService {
      * Credit amount to account
      */
     public Account creditAccount(Long accountId, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Credit amount must be positive");
+        long cents = positiveMinorUnits(amount, "Credit amount must be positive");
+        if (hotAccounts.isHot(accountId)) {
+            return creditHotAccount(accountId, cents);
         }
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
-
-        account.credit(amount);
-        return accountRepository.save(account);
+        Account account = creditOrThrow(accountId, cents, "Account not found with id: ");
+        recordTransaction(account, Transaction.TransactionType.CREDIT, cents, null);
+        return account;
     }
 
     /**
      * Debit amount from account
      */
     public Account debitAccount(Long accountId, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Debit amount must be positive");
-        }
+        long cents = positiveMinorUnits(amount, "Debit amount must be positive");
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
+        Account account = debitOrThrow(accountId, cents, "Account not found with id: ",
+                "Insufficient balance for debit operation");
+        recordTransaction(account, Transaction.TransactionType.DEBIT, -cents, null);
+        return account;
+    }
 
-        if (!account.debit(amount)) {
-            throw new IllegalStateException("Insufficient balance for debit operation");
+    /**
+     * Transfer amount between accounts
+     */
+    public void transferBetweenAccounts(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        long cents = positiveMinorUnits(amount, "Transfer amount must be positive");
+
+        // Update the rows in id order so two opposite transfers cannot deadlock; if the second
+        // update fails the exception rolls back the first one
+        Account fromAccount;
+        Account toAccount;
+        if (fromAccountId != null && toAccountId != null && fromAccountId > toAccountId) {
+            toAccount = creditOrThrow(toAccountId, cents, "Destination account not found with id: ");
+            fromAccount = debitOrThrow(fromAccountId, cents, "Source account not found with id: ",
+                    "Insufficient balance in source account");
+        } else {
+            fromAccount = debitOrThrow(fromAccountId, cents, "Source account not found with id: ",
+                    "Insufficient balance in source account");
+            toAccount = creditOrThrow(toAccountId, cents, "Destination account not found with id: ");
         }
 
-        return accountRepository.save(account);
+        recordTransfer(fromAccount, toAccount, cents);
     }
 
     /**
-     * Transfer amount between accounts
+     * Apply a batch of transfers in order inside one transaction.
+     * All involved accounts are loaded and locked with a single query, and the modified rows are
+     * written as one JDBC batch at commit. A failed item is reported and skipped without affecting the others.
      */
-    public void transferBetweenAccounts(Long fromAccountId, Long toAccountId, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Transfer amount must be positive");
+    public List<TransferResult> transferBatch(List<TransferInstruction> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
+        }
+        if (transfers.size() > MAX_BATCH_TRANSFERS) {
+            throw new IllegalArgumentException("A batch cannot contain more than " + MAX_BATCH_TRANSFERS + " transfers");
         }
 
-        Account fromAccount = accountRepository.findById(fromAccountId)
-                .orElseThrow(() -> new RuntimeException("Source account not found with id: " + fromAccountId));
+        Set<Long> accountIds = new HashSet<>();
+        for (TransferInstruction transfer : transfers) {
+            if (transfer.getFromAccountId() != null) {
+                accountIds.add(transfer.getFromAccountId());
+            }
+            if (transfer.getToAccountId() != null) {
+                accountIds.add(transfer.getToAccountId());
+            }
+        }
 
-        Account toAccount = accountRepository.findById(toAccountId)
-                .orElseThrow(() -> new RuntimeException("Destination account not found with id: " + toAccountId));
+        // Balances are checked in memory below, so pending credits of hot accounts must be in their rows first
+        accountIds.stream().filter(hotAccounts::isHot).sorted().forEach(hotAccounts::drainIntoCurrentTransaction);
 
-        if (!fromAccount.debit(amount)) {
-            throw new IllegalStateException("Insufficient balance in source account");
+        Map<Long, Account> accounts = new HashMap<>();
+        Map<Long, Long> openingBalances = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            for (Account account : accountRepository.findAllByIdInForUpdate(accountIds)) {
+                accounts.put(account.getId(), account);
+                openingBalances.put(account.getId(), account.getBalanceMinorUnits());
+            }
         }
 
-        toAccount.credit(amount);
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            results.add(applyTransfer(i, transfers.get(i), accounts));
+        }
 
-        // Save both accounts
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        // No explicit save: the loaded accounts are managed, so dirty checking flushes them in one batch
+        // (the first summary update below triggers that flush)
+        for (Account account : accounts.values()) {
+            accountSummaries.balanceChanged(account.getUserId(), openingBalances.get(account.getId()),
+                    account.getBalanceMinorUnits());
+            if (account.getBalanceMinorUnits() != openingBalances.get(account.getId())) {
+                balanceEvents.balanceChanged(account);
+                lowBalances.accountChanged(account);
+            }
+            evictAccount(account.getId());
+        }
+        return results;
     }
 
     /**
@@ -280,11 +607,160 @@ public class AccountService {
      */
     @Transactional(readOnly = true)
     public AccountSummaryDto getAccountSummary(Long userId) {
-        return accountRepository.getAccountSummaryByUserId(userId);
+        return accountSummaries.getSummary(userId);
+    }
+
+    /**
+     * Get a page of an account's transaction journal, newest first, starting before the given cursor
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Transaction> getTransactionsPage(Long accountId, Long before, int limit) {
+        KeysetPage.checkLimit(limit);
+        if (!accountRepository.existsById(accountId)) {
+            throw new RuntimeException("Account not found with id: " + accountId);
+        }
+        List<Transaction> rows = transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(
+                accountId, before == null ? Long.MAX_VALUE : before, Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Transaction::getId);
     }
 
     // Private helper methods
 
+    private TransferResult applyTransfer(int index, TransferInstruction transfer, Map<Long, Account> accounts) {
+        long cents;
+        try {
+            cents = positiveMinorUnits(transfer.getAmount(), "Transfer amount must be positive");
+        } catch (IllegalArgumentException e) {
+            return TransferResult.failed(index, transfer, e.getMessage());
+        }
+
+        Account fromAccount = accounts.get(transfer.getFromAccountId());
+        if (fromAccount == null) {
+            return TransferResult.failed(index, transfer,
+                    "Source account not found with id: " + transfer.getFromAccountId());
+        }
+
+        Account toAccount = accounts.get(transfer.getToAccountId());
+        if (toAccount == null) {
+            return TransferResult.failed(index, transfer,
+                    "Destination account not found with id: " + transfer.getToAccountId());
+        }
+
+        if (!fromAccount.debit(cents)) {
+            return TransferResult.failed(index, transfer, "Insufficient balance in source account");
+        }
+
+        toAccount.credit(cents);
+        recordTransfer(fromAccount, toAccount, cents);
+        return TransferResult.completed(index, transfer);
+    }
+
+    // Hot accounts: the journal row is written now, the balance reaches the row through the background flusher
+    private Account creditHotAccount(Long accountId, long cents) {
+        Account account = findWithPendingCredits(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
+        transactionRepository.save(new Transaction(accountId, Transaction.TransactionType.CREDIT,
+                Money.toDecimal(cents), null, null));
+        hotAccounts.creditAfterCommit(accountId, account.getUserId(), cents);
+        // The reported balance includes this credit, which is accumulated when the transaction commits
+        addToReportedBalance(account, cents);
+        balanceEvents.balanceChanged(account);
+        lowBalances.accountChanged(account);
+        return account;
+    }
+
+    // Row balance plus credits still in the accumulator, returned as a detached copy so it is never written back
+    private Optional<Account> findWithPendingCredits(Long accountId) {
+        return hotAccounts.readConsistent(List.of(accountId), () -> accountRepository.findById(accountId)
+                .map(account -> {
+                    entityManager.detach(account);
+                    addToReportedBalance(account, hotAccounts.pendingAmount(accountId));
+                    return account;
+                }));
+    }
+
+    private static void addToReportedBalance(Account detachedAccount, long cents) {
+        detachedAccount.setBalance(detachedAccount.getBalance()
+                .plus(Money.ofMinor(cents, detachedAccount.getCurrency())));
+    }
+
+    // Single guarded UPDATE; an empty result means the account does not exist
+    private Account creditOrThrow(Long accountId, long amount, String notFoundMessage) {
+        Account account = accountRepository.creditAndGet(accountId, amount)
+                .orElseThrow(() -> new RuntimeException(notFoundMessage + accountId));
+        accountSummaries.balanceChanged(account.getUserId(), account.getBalanceMinorUnits() - amount,
+                account.getBalanceMinorUnits());
+        balanceEvents.balanceChanged(account);
+        lowBalances.accountChanged(account);
+        evictAccount(accountId);
+        return account;
+    }
+
+    // Single guarded UPDATE; only on failure do we look again to tell "missing" from "insufficient funds"
+    private Account debitOrThrow(Long accountId, long amount, String notFoundMessage,
+                                 String insufficientMessage) {
+        Optional<Account> account = accountRepository.debitAndGet(accountId, amount);
+        if (account.isEmpty() && hotAccounts.isHot(accountId)) {
+            // Pending credits may cover the debit: move them into the row and try once more
+            hotAccounts.drainIntoCurrentTransaction(accountId);
+            account = accountRepository.debitAndGet(accountId, amount);
+        }
+        Account debited = account.orElseThrow(() -> accountRepository.existsById(accountId)
+                ? new IllegalStateException(insufficientMessage)
+                : new RuntimeException(notFoundMessage + accountId));
+        accountSummaries.balanceChanged(debited.getUserId(), debited.getBalanceMinorUnits() + amount,
+                debited.getBalanceMinorUnits());
+        balanceEvents.balanceChanged(debited);
+        lowBalances.accountChanged(debited);
+        evictAccount(accountId);
+        return debited;
+    }
+
+    private Cache accountCache() {
+        return cacheManager.getCache(CacheConfig.ACCOUNTS);
+    }
+
+    // Cached entities are detached and shared between requests, so callers must treat them as read-only.
+    // The put is dropped if the account was evicted after the generation was taken.
+    private Account cacheAccount(Account account, long generation) {
+        entityManager.detach(account);
+        cacheGenerations.put(accountCache(), account.getId(), account, generation);
+        return account;
+    }
+
+    // Takes effect when the surrounding transaction commits
+    private void evictAccount(Long accountId) {
+        cacheGenerations.evict(accountCache(), accountId);
+    }
+
+    // Journal rows are inserted in the same transaction as the balance change and flushed in JDBC batches.
+    // The row balance of a hot account excludes pending credits, so no balance-after is recorded for it.
+    private void recordTransaction(Account account, Transaction.TransactionType type, long amount,
+                                   Long counterpartyAccountId) {
+        BigDecimal balanceAfter = hotAccounts.isHot(account.getId())
+                ? null : Money.toDecimal(account.getBalanceMinorUnits());
+        transactionRepository.save(new Transaction(account.getId(), type, Money.toDecimal(amount), balanceAfter,
+                counterpartyAccountId));
+    }
+
+    private void recordTransfer(Account fromAccount, Account toAccount, long amount) {
+        recordTransaction(fromAccount, Transaction.TransactionType.TRANSFER_OUT, -amount, toAccount.getId());
+        recordTransaction(toAccount, Transaction.TransactionType.TRANSFER_IN, amount, fromAccount.getId());
+    }
+
+    // Request amounts are decimals in the account currency, converted to minor units once, here
+    private static long positiveMinorUnits(BigDecimal amount, String notPositiveMessage) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException(notPositiveMessage);
+        }
+        return Money.toMinorUnits(amount);
+    }
+
+    // balance < 10.005 holds exactly for balances < 10.01, so round a finer threshold up to whole cents
+    private static long thresholdMinorUnits(BigDecimal threshold) {
+        return Money.toMinorUnits(threshold.setScale(Money.SCALE, RoundingMode.CEILING));
+    }
+
     private void validateAccountData(Account account) {
         if (account.getAccountName() == null || account.getAccountName().trim().isEmpty()) {
             throw new IllegalArgumentException("Account name is required");
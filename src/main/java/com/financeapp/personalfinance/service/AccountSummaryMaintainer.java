@@ -0,0 +1,177 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.UserAccountSummary;
+import com.financeapp.personalfinance.repository.UserAccountSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps user_account_summary in step with the accounts table.
+ * <p>
+ * Changes are collected for the current transaction and applied just before it commits, so they commit
+ * or roll back together with the balance changes behind them. Applying them last, in user id order, means
+ * a transaction only takes summary row locks after all of its account row locks, and always in the same
+ * order, so concurrent transfers cannot deadlock on them. Balances are handled in minor units.
+ */
+@Component
+@Transactional
+public class AccountSummaryMaintainer {
+
+    @Autowired
+    private UserAccountSummaryRepository summaryRepository;
+
+    public void accountCreated(Account account) {
+        UserChanges changes = pendingChanges().computeIfAbsent(account.getUserId(), userId -> new UserChanges());
+        changes.created = true;
+        changes.countDelta++;
+        changes.balanceDelta = Math.addExact(changes.balanceDelta, account.getBalanceMinorUnits());
+        changes.addNewBalance(account.getBalanceMinorUnits());
+    }
+
+    public void accountDeleted(Account account) {
+        UserChanges changes = pendingChanges().computeIfAbsent(account.getUserId(), userId -> new UserChanges());
+        changes.countDelta--;
+        changes.balanceDelta = Math.subtractExact(changes.balanceDelta, account.getBalanceMinorUnits());
+        changes.raisedFrom.add(account.getBalanceMinorUnits());
+        changes.loweredFrom.add(account.getBalanceMinorUnits());
+    }
+
+    public void balanceChanged(Long userId, long oldBalance, long newBalance) {
+        if (newBalance == oldBalance) {
+            return;
+        }
+        UserChanges changes = pendingChanges().computeIfAbsent(userId, id -> new UserChanges());
+        changes.balanceDelta = Math.addExact(changes.balanceDelta, Math.subtractExact(newBalance, oldBalance));
+        changes.addNewBalance(newBalance);
+        (newBalance > oldBalance ? changes.raisedFrom : changes.loweredFrom).add(oldBalance);
+    }
+
+    /**
+     * Recompute one user's row from the accounts table, creating it if missing
+     */
+    public void rebuildForUser(Long userId) {
+        summaryRepository.insertEmptyIfMissing(userId, LocalDateTime.now());
+        summaryRepository.recomputeForUser(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Recompute every row from scratch; run while balance writes are paused
+     */
+    public int rebuildAll() {
+        summaryRepository.deleteAllRows();
+        return summaryRepository.insertAllFromAccounts(LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public AccountSummaryDto getSummary(Long userId) {
+        return summaryRepository.findById(userId)
+                .map(AccountSummaryMaintainer::toDto)
+                .orElseGet(() -> new AccountSummaryDto(0L, BigDecimal.ZERO, BigDecimal.ZERO,
+                        BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    /**
+     * Total balance of a user's accounts in minor units
+     */
+    @Transactional(readOnly = true)
+    public long getTotalBalance(Long userId) {
+        return summaryRepository.findById(userId)
+                .map(UserAccountSummary::getTotalBalance)
+                .orElse(0L);
+    }
+
+    private void apply(Map<Long, UserChanges> changesByUser) {
+        LocalDateTime now = LocalDateTime.now();
+        changesByUser.forEach((userId, changes) -> {
+            if (changes.created) {
+                summaryRepository.insertEmptyIfMissing(userId, now);
+            }
+            BigDecimal balanceDelta = Money.toDecimal(changes.balanceDelta);
+            int rows = changes.lowestNewBalance == null
+                    ? summaryRepository.applyDelta(userId, changes.countDelta, balanceDelta, now)
+                    : summaryRepository.applyChange(userId, changes.countDelta, balanceDelta,
+                            Money.toDecimal(changes.lowestNewBalance), Money.toDecimal(changes.highestNewBalance),
+                            now);
+            if (rows == 0) {
+                // No row yet (e.g. created before this table existed): build it from the accounts table
+                rebuildForUser(userId);
+                return;
+            }
+            // The update above holds the row lock, so these statements see every committed balance of the user
+            for (long oldBalance : changes.raisedFrom) {
+                summaryRepository.recomputeMinIfEqual(userId, Money.toDecimal(oldBalance));
+            }
+            for (long oldBalance : changes.loweredFrom) {
+                summaryRepository.recomputeMaxIfEqual(userId, Money.toDecimal(oldBalance));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserChanges> pendingChanges() {
+        Map<Long, UserChanges> changes = (Map<Long, UserChanges>) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes;
+        }
+        Map<Long, UserChanges> created = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(AccountSummaryMaintainer.this);
+            }
+        });
+        return created;
+    }
+
+    private static AccountSummaryDto toDto(UserAccountSummary summary) {
+        if (summary.getAccountCount() == 0) {
+            return new AccountSummaryDto(0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        BigDecimal total = Money.toDecimal(summary.getTotalBalance());
+        BigDecimal average = total.divide(BigDecimal.valueOf(summary.getAccountCount()), Money.SCALE,
+                RoundingMode.HALF_UP);
+        return new AccountSummaryDto(summary.getAccountCount(), total, average,
+                Money.toDecimal(summary.getMaxBalance()), Money.toDecimal(summary.getMinBalance()));
+    }
+
+    // Net effect of one transaction on one user's row
+    private static final class UserChanges {
+        private boolean created;
+        private long countDelta;
+        private long balanceDelta;
+        private Long lowestNewBalance;
+        private Long highestNewBalance;
+        // Balances that accounts moved away from: if one was the min (max), it must be recomputed
+        private final NavigableSet<Long> raisedFrom = new TreeSet<>();
+        private final NavigableSet<Long> loweredFrom = new TreeSet<>();
+
+        private void addNewBalance(long balance) {
+            if (lowestNewBalance == null || balance < lowestNewBalance) {
+                lowestNewBalance = balance;
+            }
+            if (highestNewBalance == null || balance > highestNewBalance) {
+                highestNewBalance = balance;
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.dto.BalanceEvent;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed balance changes to the server-sent event streams of the account owners, on the
+ * servlet API ({@link #subscribe}) and on the reactive read API ({@link #stream}).
+ * <p>
+ * Changes are collected per transaction (the latest balance of each account) and published after it commits.
+ * Each subscriber has its own buffer of unsent events, at most app.accounts.balance-stream.buffer-size
+ * accounts: a newer balance replaces an unsent one of the same account, and a subscriber whose buffer is full
+ * anyway is disconnected (its client reconnects and reads the balances again) rather than held in memory or
+ * allowed to slow the others. Servlet streams are written on virtual threads, so a slow connection only blocks
+ * its own; reactive streams take events from the buffer only as fast as their connection requests them.
+ * <p>
+ * An idle stream holds no thread. A comment every heartbeat interval keeps proxies from closing it and clears
+ * out connections that have gone away. Open streams are completed on shutdown.
+ */
+@Component
+public class BalanceEventHub implements SmartLifecycle {
+
+    public static final String EVENT_NAME = "balance";
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter overflows;
+    private volatile boolean running;
+
+    public BalanceEventHub(MeterRegistry meterRegistry,
+                           @Value("${app.accounts.balance-stream.buffer-size:32}") int bufferSize,
+                           @Value("${app.accounts.balance-stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        Gauge.builder("app.accounts.balance-stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open balance event streams")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("app.accounts.balance-stream.overflows")
+                .description("Balance event streams closed because the client did not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the balance changes of a user's accounts, written to a servlet response
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        EmitterSubscription subscription = new EmitterSubscription(userId, emitter);
+        add(subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    /**
+     * The balance changes of a user's accounts as server-sent events, ending after the stream timeout
+     */
+    public Flux<ServerSentEvent<BalanceEvent>> stream(Long userId) {
+        return Flux.<ServerSentEvent<BalanceEvent>>create(sink -> {
+                    FluxSubscription subscription = new FluxSubscription(userId, sink);
+                    sink.onRequest(requested -> subscription.drain());
+                    sink.onDispose(subscription::close);
+                    add(subscription);
+                })
+                .take(timeout);
+    }
+
+    /**
+     * Record the new balance of an account; it is published when the current transaction commits
+     */
+    public void balanceChanged(Account account) {
+        if (!subscriptions.containsKey(account.getUserId())) {
+            return;
+        }
+        BalanceEvent event = new BalanceEvent(account.getId(), account.getUserId(),
+                Money.toDecimal(account.getBalanceMinorUnits()), account.getCurrency());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        pendingEvents().put(account.getId(), event);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.accounts.balance-stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::heartbeat));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Stopped in the default phase, before the web server's graceful shutdown, which would otherwise wait for
+    // the open streams to end
+    @Override
+    public void stop() {
+        running = false;
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::complete));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @PreDestroy
+    public void shutdownSenders() {
+        senders.shutdown();
+    }
+
+    private void add(Subscription subscription) {
+        subscriptions.compute(subscription.userId, (id, userSubscriptions) -> {
+            Set<Subscription> updated = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+    }
+
+    private void publish(BalanceEvent event) {
+        Set<Subscription> userSubscriptions = subscriptions.get(event.getUserId());
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(subscription -> subscription.offer(event));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, BalanceEvent> pendingEvents() {
+        Map<Long, BalanceEvent> events = (Map<Long, BalanceEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events != null) {
+            return events;
+        }
+        Map<Long, BalanceEvent> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.values().forEach(BalanceEventHub.this::publish);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(BalanceEventHub.this);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * One open stream and its buffer of unsent events, drained by the subclass as fast as its connection allows.
+     * Drains never overlap: whoever finds no drain running does it, and repeats it for every drain requested
+     * meanwhile.
+     */
+    private abstract class Subscription {
+
+        // Returned by poll when a heartbeat is the next thing to write
+        static final Object HEARTBEAT = new Object();
+
+        final Long userId;
+        final AtomicInteger drainsRequested = new AtomicInteger();
+
+        // Guarded by this: unsent events by account, whether a heartbeat is due
+        private final LinkedHashMap<Long, BalanceEvent> unsent = new LinkedHashMap<>();
+        private boolean heartbeatDue;
+        private boolean closed;
+
+        Subscription(Long userId) {
+            this.userId = userId;
+        }
+
+        void offer(BalanceEvent event) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // A newer balance replaces the unsent one of the same account
+                overflow = unsent.remove(event.getAccountId()) == null && unsent.size() == bufferSize;
+                if (!overflow) {
+                    unsent.put(event.getAccountId(), event);
+                }
+            }
+            if (overflow) {
+                overflows.increment();
+                close();
+                complete();
+                return;
+            }
+            drain();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || !unsent.isEmpty() || heartbeatDue) {
+                    return;
+                }
+                heartbeatDue = true;
+            }
+            drain();
+        }
+
+        // The next event (or HEARTBEAT) to write; null when there is none or the stream is closed
+        synchronized Object poll() {
+            if (closed) {
+                return null;
+            }
+            Iterator<BalanceEvent> next = unsent.values().iterator();
+            if (next.hasNext()) {
+                BalanceEvent event = next.next();
+                next.remove();
+                return event;
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                return HEARTBEAT;
+            }
+            return null;
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+                if (userSubscriptions.remove(this)) {
+                    subscriberCount.decrementAndGet();
+                }
+                return userSubscriptions.isEmpty() ? null : userSubscriptions;
+            });
+        }
+
+        abstract void drain();
+
+        // End the stream from the server side
+        abstract void complete();
+    }
+
+    private final class EmitterSubscription extends Subscription {
+
+        private final SseEmitter emitter;
+
+        EmitterSubscription(Long userId, SseEmitter emitter) {
+            super(userId);
+            this.emitter = emitter;
+        }
+
+        @Override
+        void drain() {
+            if (drainsRequested.getAndIncrement() == 0) {
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            int drains = 1;
+            do {
+                Object message;
+                while ((message = poll()) != null) {
+                    try {
+                        emitter.send(message == HEARTBEAT
+                                ? SseEmitter.event().comment("")
+                                : SseEmitter.event().name(EVENT_NAME).data(message, MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        // The client has gone or the stream was completed; the container completes the emitter
+                        close();
+                        return;
+                    }
+                }
+                drains = drainsRequested.addAndGet(-drains);
+            } while (drains != 0);
+        }
+
+        @Override
+        void complete() {
+            emitter.complete();
+        }
+    }
+
+    private final class FluxSubscription extends Subscription {
+
+        private final FluxSink<ServerSentEvent<BalanceEvent>> sink;
+
+        FluxSubscription(Long userId, FluxSink<ServerSentEvent<BalanceEvent>> sink) {
+            super(userId);
+            this.sink = sink;
+        }
+
+        // Emits only as many events as the connection has requested; the rest wait in the buffer
+        @Override
+        void drain() {
+            if (drainsRequested.getAndIncrement() != 0) {
+                return;
+            }
+            int drains = 1;
+            do {
+                Object message;
+                while (sink.requestedFromDownstream() > 0 && (message = poll()) != null) {
+                    sink.next(message == HEARTBEAT
+                            ? ServerSentEvent.<BalanceEvent>builder().comment("").build()
+                            : ServerSentEvent.builder((BalanceEvent) message).event(EVENT_NAME).build());
+                }
+                drains = drainsRequested.addAndGet(-drains);
+            } while (drains != 0);
+        }
+
+        @Override
+        void complete() {
+            sink.complete();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.repository.AccountRepository;
+import com.financeapp.personalfinance.repository.HotAccountCreditsRepository;
+import com.financeapp.personalfinance.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in write path for "hot" accounts (configured in app.accounts.hot.ids) that receive many credits per second.
+ * <p>
+ * Credits to a hot account are added to a striped LongAdder (in cents) instead of updating the accounts row,
+ * so they never queue on the row lock. A background flusher applies the aggregated delta to the row on a
+ * short interval. Moving money from the accumulator to the row takes the account's write lock; consistent
+ * reads take the read lock, so they never see the same credit twice or not at all.
+ * <p>
+ * Every credit is journaled before it is accumulated, and each flush adds what it applied to the account's
+ * hot_account_credits row in the same transaction. Credits journaled but still in memory when the process stopped
+ * are the difference between the two, and are applied at startup before the accumulator takes credits. This
+ * assumes one instance accumulates for a given hot account: another instance's pending credits would look lost.
+ */
+@Component
+public class HotAccountAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotAccountAccumulator.class);
+
+    private static final long LOCK_TIMEOUT_SECONDS = 5;
+
+    private final Map<Long, HotAccount> hotAccounts;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSummaryMaintainer accountSummaries;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HotAccountCreditsRepository hotAccountCredits;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public HotAccountAccumulator(@Value("${app.accounts.hot.ids:}") Set<Long> hotAccountIds,
+                                 PlatformTransactionManager transactionManager) {
+        Map<Long, HotAccount> accounts = new HashMap<>();
+        for (Long accountId : hotAccountIds) {
+            accounts.put(accountId, new HotAccount());
+        }
+        this.hotAccounts = Map.copyOf(accounts);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isHot(Long accountId) {
+        return accountId != null && hotAccounts.containsKey(accountId);
+    }
+
+    /**
+     * Accumulate a credit (minor units) once the caller's transaction (which writes the journal row) commits
+     */
+    public void creditAfterCommit(Long accountId, Long userId, long cents) {
+        HotAccount hot = hotAccounts.get(accountId);
+        hot.userId = userId;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hot.pending.add(cents);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hot.pending.add(cents);
+            }
+        });
+    }
+
+    /**
+     * Credits (minor units) accepted for a hot account but not yet applied to its row
+     */
+    public long pendingAmount(Long accountId) {
+        HotAccount hot = hotAccounts.get(accountId);
+        return hot == null ? 0 : hot.pending.sum();
+    }
+
+    /**
+     * Pending credits (minor units) across the hot accounts of a user
+     */
+    public long pendingAmountForUser(Long userId) {
+        long cents = 0;
+        for (HotAccount hot : hotAccounts.values()) {
+            if (Objects.equals(hot.userId, userId)) {
+                cents = Math.addExact(cents, hot.pending.sum());
+            }
+        }
+        return cents;
+    }
+
+    public List<Long> hotAccountIdsForUser(Long userId) {
+        return hotAccounts.entrySet().stream()
+                .filter(entry -> Objects.equals(entry.getValue().userId, userId))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Run a read of the rows while no flush is moving money between the accumulator and those rows,
+     * so the row balance plus {@link #pendingAmount} is exact
+     */
+    public <T> T readConsistent(Collection<Long> accountIds, Supplier<T> read) {
+        List<ReentrantReadWriteLock.ReadLock> locks = accountIds.stream()
+                .filter(hotAccounts::containsKey)
+                .sorted()
+                .map(accountId -> hotAccounts.get(accountId).lock.readLock())
+                .toList();
+        locks.forEach(ReentrantReadWriteLock.ReadLock::lock);
+        try {
+            return read.get();
+        } finally {
+            locks.forEach(ReentrantReadWriteLock.ReadLock::unlock);
+        }
+    }
+
+    /**
+     * Move an account's pending credits into its row inside the caller's transaction, e.g. before a debit
+     * so the balance check sees them. The account stays locked against flushes and consistent reads until
+     * that transaction completes, and the amount goes back to the accumulator if it rolls back.
+     */
+    public void drainIntoCurrentTransaction(Long accountId) {
+        HotAccount hot = hotAccounts.get(accountId);
+        if (hot != null && !drain(accountId, hot)) {
+            throw new IllegalStateException("Hot account is busy, retry the operation: " + accountId);
+        }
+    }
+
+    /**
+     * Apply the credits that were journaled but never flushed, e.g. because the process stopped between the
+     * commit of a credit and the next flush. Only safe while nothing is pending, i.e. before the first credit.
+     */
+    @PostConstruct
+    void recoverUnflushedCredits() {
+        hotAccounts.keySet().forEach(accountId -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recover(accountId));
+            } catch (RuntimeException e) {
+                // Left for the next start: the journal and the applied total still tell what is missing
+                logger.error("Failed to recover unflushed credits of hot account {}", accountId, e);
+            }
+        });
+    }
+
+    /**
+     * Apply the accumulated credits of every hot account to its row
+     */
+    @Scheduled(fixedDelayString = "${app.accounts.hot.flush-interval:100}")
+    public void flush() {
+        hotAccounts.forEach(this::flush);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(Long accountId, HotAccount hot) {
+        if (hot.pending.sum() == 0) {
+            return;
+        }
+        try {
+            // Drain inside the transaction so the connection is taken before the lock: readers wait
+            // for the lock while holding a connection, so the other order can exhaust the pool
+            transactionTemplate.executeWithoutResult(status -> drain(accountId, hot));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush pending credits to hot account {}", accountId, e);
+        }
+    }
+
+    private boolean drain(Long accountId, HotAccount hot) {
+        try {
+            // Bounded wait: the lock holder may itself be waiting on a row lock held by our transaction
+            if (!hot.lock.writeLock().tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        // Subtract exactly what we apply: credits that race with the drain stay pending for the next one
+        long cents = hot.pending.sum();
+        hot.pending.add(-cents);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    hot.pending.add(cents);
+                }
+                hot.lock.writeLock().unlock();
+            }
+        });
+        if (cents != 0) {
+            apply(accountId, cents);
+        }
+        return true;
+    }
+
+    private void recover(Long accountId) {
+        hotAccountCredits.insertEmptyIfMissing(accountId, LocalDateTime.now());
+        long applied = Money.toMinorUnits(hotAccountCredits.findAppliedForUpdate(accountId));
+        long missing = Money.toMinorUnits(transactionRepository.sumHotCredits(accountId)) - applied;
+        if (missing != 0) {
+            apply(accountId, missing);
+            logger.warn("Applied {} of unflushed credits to hot account {}", Money.toDecimal(missing), accountId);
+        }
+    }
+
+    // Credit the row and count the amount as applied, in the caller's transaction
+    private void apply(Long accountId, long cents) {
+        accountRepository.creditAndGet(accountId, cents).ifPresent(account ->
+                accountSummaries.balanceChanged(account.getUserId(), account.getBalanceMinorUnits() - cents,
+                        account.getBalanceMinorUnits()));
+        BigDecimal amount = Money.toDecimal(cents);
+        LocalDateTime now = LocalDateTime.now();
+        if (hotAccountCredits.addApplied(accountId, amount, now) == 0) {
+            hotAccountCredits.insertEmptyIfMissing(accountId, now);
+            hotAccountCredits.addApplied(accountId, amount, now);
+        }
+    }
+
+    private static final class HotAccount {
+        private final LongAdder pending = new LongAdder();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile Long userId;
+    }
+}
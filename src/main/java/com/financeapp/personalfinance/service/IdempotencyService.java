@@ -0,0 +1,162 @@
+package com.financeapp.personalfinance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personalfinance.model.IdempotencyKey;
+import com.financeapp.personalfinance.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per Idempotency-Key.
+ * <p>
+ * Completed responses are kept in a bounded in-memory map with TTL eviction, so a retry that hits
+ * this instance is answered without any database access. Behind it, the idempotency_keys table is the
+ * durable record: the key is inserted in the same transaction as the operation, so it commits exactly
+ * when the operation does, and a concurrent or later retry (on any instance) fails on the primary key
+ * and replays the stored response. Only successful (2xx) responses are stored; failures roll back the
+ * key as well, so the client can retry them.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyService(PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.cache-size:100000}") long cacheSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Run the operation once for this key, or replay the response it produced the first time.
+     * The fingerprint identifies the request; reusing a key for a different request is rejected with 422.
+     */
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+
+        StoredResponse stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, fingerprint, bodyType);
+        }
+
+        try {
+            return executeOnce(key, fingerprint, operation);
+        } catch (DataIntegrityViolationException e) {
+            // The key is already in the table: answer from it, or reuse it once if it has expired
+            if (idempotencyKeyRepository.deleteIfExpired(key, LocalDateTime.now()) > 0) {
+                return executeOnce(key, fingerprint, operation);
+            }
+            return idempotencyKeyRepository.findById(key)
+                    .filter(IdempotencyKey::isCompleted)
+                    .map(StoredResponse::of)
+                    .map(found -> {
+                        completed.put(key, found);
+                        return replay(found, fingerprint, bodyType);
+                    })
+                    // Still running in another transaction
+                    .orElseGet(() -> new ResponseEntity<>(null, HttpStatus.CONFLICT));
+        }
+    }
+
+    /**
+     * Remove expired keys from the table
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private <T> ResponseEntity<T> executeOnce(String key, String fingerprint, Supplier<ResponseEntity<T>> operation) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Flush the insert now so a duplicate key fails before the operation touches any account
+            IdempotencyKey claimed = idempotencyKeyRepository.saveAndFlush(
+                    new IdempotencyKey(key, fingerprint, now, now.plus(ttl)));
+
+            ResponseEntity<T> response = operation.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                status.setRollbackOnly();
+                return response;
+            }
+
+            StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(),
+                    toJson(response.getBody()));
+            claimed.complete(stored.status(), stored.body());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    completed.put(key, stored);
+                }
+            });
+            return response;
+        });
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> bodyType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return new ResponseEntity<>(null, HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), bodyType);
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, int status, String body) {
+        static StoredResponse of(IdempotencyKey key) {
+            return new StoredResponse(key.getRequestFingerprint(), key.getResponseStatus(), key.getResponseBody());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps monthly journal partitions in place ahead of time (app.journal.partitions.months-ahead), so new rows
+ * never pile up in transactions_default. Runs at startup and then periodically
+ * (app.journal.partitions.maintenance-interval); every instance may run it, the database serializes them.
+ */
+@Component
+public class JournalPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPartitionMaintainer.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public JournalPartitionMaintainer(PlatformTransactionManager transactionManager,
+                                      @Value("${app.journal.partitions.months-ahead:12}") int monthsAhead) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("app.journal.partitions.months-ahead must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.journal.partitions.maintenance-interval:PT24H}",
+            initialDelayString = "${app.journal.partitions.maintenance-interval:PT24H}")
+    public void maintain() {
+        try {
+            createPartitions();
+        } catch (RuntimeException e) {
+            // Retried on the next run; the partitions already in place cover the months until then
+            logger.error("Creating journal partitions failed", e);
+        }
+    }
+
+    /**
+     * Create the missing partitions up to months-ahead months from now; returns how many were created
+     */
+    public int createPartitions() {
+        int created = transactionTemplate.execute(status -> transactionRepository.createPartitions(monthsAhead));
+        if (created > 0) {
+            logger.info("Created {} journal partitions", created);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,362 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.LowBalanceEvent;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the accounts below their low-balance threshold (their own lowBalanceThreshold, otherwise
+ * app.accounts.low-balance.threshold; credit cards are never low), ordered by id so the low-balance report reads
+ * a page straight from it.
+ * <p>
+ * Loaded at startup and kept current by {@link AccountService}, which reports every account it creates, updates,
+ * deletes or changes the balance of. Changes are applied once their transaction commits, in the order they were
+ * made: each is numbered when it is reported (for credits, debits and transfers, while the updated row is still
+ * locked), and one that commits after a later change to the same account is dropped. An account that falls below
+ * its threshold or gets back to it publishes a {@link LowBalanceEvent}. Changes made by other instances or around
+ * the service are picked up by the periodic resync (app.accounts.low-balance.resync-interval).
+ */
+@Component
+public class LowBalanceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowBalanceIndex.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryTemplate;
+    private final boolean enabled;
+    private final long threshold;
+    private final Counter fellBelow;
+    private final Counter recovered;
+
+    // Low accounts and their balances; read without locking, changed while holding lock
+    private final ConcurrentSkipListMap<Long, Long> lowAccounts = new ConcurrentSkipListMap<>();
+
+    // Guards the changes below and to lowAccounts
+    private final Object lock = new Object();
+    // Accounts with changes not yet committed or rolled back
+    private final Map<Long, InFlight> inFlight = new HashMap<>();
+    private long changeCount;
+    // Accounts changed while a load reads the table; their state in the index is newer than what it reads
+    private Set<Long> changedDuringLoad;
+    private volatile boolean ready;
+
+    public LowBalanceIndex(PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.accounts.low-balance.index-enabled:true}") boolean enabled,
+                           @Value("${app.accounts.low-balance.threshold:100.00}") BigDecimal threshold) {
+        // Not read-only: a read-only transaction may go to a replica, whose lag would undo recent changes
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Its own transaction, for checks made from within a read-only one
+        this.primaryTemplate = new TransactionTemplate(transactionManager);
+        this.primaryTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.threshold = thresholdMinorUnits(threshold);
+        this.fellBelow = crossings(meterRegistry, "below");
+        this.recovered = crossings(meterRegistry, "recovered");
+        Gauge.builder("app.accounts.low-balance.accounts", lowAccounts, Map::size)
+                .description("Accounts below their low-balance threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the index is loaded and can serve the low-balance report
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Global threshold, for the accounts without one of their own
+     */
+    public BigDecimal getThreshold() {
+        return Money.toDecimal(threshold);
+    }
+
+    /**
+     * Ids of low accounts after the given cursor, in id order
+     */
+    public List<Long> page(Long after, int limit) {
+        return lowAccounts.tailMap(KeysetPage.cursor(after), false).keySet().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Drop the given accounts, which a page read did not find, unless they exist on the primary (a replica may lag
+     * behind) or have changes in flight
+     */
+    public void dropMissing(List<Long> accountIds) {
+        Set<Long> existing = new HashSet<>();
+        primaryTemplate.executeWithoutResult(status -> accountRepository.findAllById(accountIds)
+                .forEach(account -> existing.add(account.getId())));
+        synchronized (lock) {
+            for (Long id : accountIds) {
+                if (!existing.contains(id) && !inFlight.containsKey(id)) {
+                    lowAccounts.remove(id);
+                    if (changedDuringLoad != null) {
+                        changedDuringLoad.add(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Record the state of a new account; applied when the current transaction commits. Starting out below the
+     * threshold (as new accounts at 0.00 do) is not a crossing.
+     */
+    public void accountCreated(Account account) {
+        if (enabled) {
+            record(change(account, isLow(account), false));
+        }
+    }
+
+    /**
+     * Record the state of an updated or re-balanced account; applied when the current transaction commits
+     */
+    public void accountChanged(Account account) {
+        if (enabled) {
+            record(change(account, isLow(account), true));
+        }
+    }
+
+    public void accountDeleted(Account account) {
+        if (enabled) {
+            record(change(account, false, false));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.accounts.low-balance.resync-interval:PT1H}",
+            initialDelayString = "${app.accounts.low-balance.resync-interval:PT1H}")
+    public void resync() {
+        if (enabled && ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Read the low accounts from the table and replace the index with them, except for the accounts changed
+     * meanwhile, whose state in the index is the newer one
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        synchronized (lock) {
+            changedDuringLoad = new HashSet<>();
+        }
+        try {
+            Map<Long, Long> found = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Account> accounts = accountRepository.streamLowBalanceCandidates(threshold)) {
+                    accounts.forEach(account -> {
+                        entityManager.detach(account);
+                        if (isLow(account)) {
+                            found.put(account.getId(), account.getBalanceMinorUnits());
+                        }
+                    });
+                }
+            });
+            synchronized (lock) {
+                lowAccounts.keySet().removeIf(id -> !found.containsKey(id) && !changedSinceLoadStarted(id));
+                found.forEach((id, balance) -> {
+                    if (!changedSinceLoadStarted(id)) {
+                        lowAccounts.put(id, balance);
+                    }
+                });
+                ready = true;
+            }
+            logger.info("Low-balance index loaded with {} accounts in {} ms", lowAccounts.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (lock) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    private boolean changedSinceLoadStarted(Long accountId) {
+        return changedDuringLoad.contains(accountId) || inFlight.containsKey(accountId);
+    }
+
+    private Change change(Account account, boolean low, boolean crossing) {
+        return new Change(account.getId(), account.getUserId(), account.getBalanceMinorUnits(), thresholdOf(account),
+                low, crossing);
+    }
+
+    /**
+     * Whether the account is below its threshold
+     */
+    boolean isLow(Account account) {
+        return account.getAccountType() != Account.AccountType.CREDIT_CARD
+                && account.getBalanceMinorUnits() < thresholdOf(account);
+    }
+
+    private long thresholdOf(Account account) {
+        Long own = account.getLowBalanceThresholdMinorUnits();
+        return own != null ? own : threshold;
+    }
+
+    private void record(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (lock) {
+                start(change);
+            }
+            complete(List.of(change), true);
+            return;
+        }
+        Map<Long, Change> changes = pendingChanges();
+        synchronized (lock) {
+            Change previous = changes.get(change.accountId);
+            if (previous == null) {
+                start(change);
+            } else {
+                change.number = ++changeCount;
+            }
+            changes.put(change.accountId, change);
+        }
+    }
+
+    // Numbers the change and counts it as in flight; called with the lock held
+    private void start(Change change) {
+        change.number = ++changeCount;
+        inFlight.computeIfAbsent(change.accountId, id -> new InFlight()).changes++;
+    }
+
+    private void complete(Iterable<Change> changes, boolean committed) {
+        List<LowBalanceEvent> crossings = new ArrayList<>();
+        synchronized (lock) {
+            for (Change change : changes) {
+                InFlight account = inFlight.get(change.accountId);
+                if (committed && change.number > account.lastApplied) {
+                    account.lastApplied = change.number;
+                    apply(change, crossings);
+                }
+                if (--account.changes == 0) {
+                    inFlight.remove(change.accountId);
+                }
+            }
+        }
+        // Outside the lock: listeners may take as long as they like
+        crossings.forEach(eventPublisher::publishEvent);
+    }
+
+    private void apply(Change change, List<LowBalanceEvent> crossings) {
+        boolean wasLow = change.low
+                ? lowAccounts.put(change.accountId, change.balance) != null
+                : lowAccounts.remove(change.accountId) != null;
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(change.accountId);
+        }
+        // Before the first load the index does not know which accounts were low already
+        if (ready && change.crossing && wasLow != change.low) {
+            (change.low ? fellBelow : recovered).increment();
+            crossings.add(new LowBalanceEvent(change.accountId, change.userId, Money.toDecimal(change.balance),
+                    Money.toDecimal(change.threshold), change.low));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Change> pendingChanges() {
+        Map<Long, Change> changes = (Map<Long, Change>) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes;
+        }
+        Map<Long, Change> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(LowBalanceIndex.this);
+                complete(created.values(), status == STATUS_COMMITTED);
+            }
+        });
+        return created;
+    }
+
+    // balance < 10.005 holds exactly for balances < 10.01, so round a finer threshold up to whole cents
+    private static long thresholdMinorUnits(BigDecimal threshold) {
+        return Money.toMinorUnits(threshold.setScale(Money.SCALE, RoundingMode.CEILING));
+    }
+
+    private static Counter crossings(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("app.accounts.low-balance.crossings")
+                .description("Accounts that crossed their low-balance threshold")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    // State of an account after a change, numbered in the order the changes were made
+    private static final class Change {
+
+        final long accountId;
+        final Long userId;
+        final long balance;
+        final long threshold;
+        final boolean low;
+        // Whether moving in or out of the index is a threshold crossing (not for new and deleted accounts)
+        final boolean crossing;
+        long number;
+
+        Change(long accountId, Long userId, long balance, long threshold, boolean low, boolean crossing) {
+            this.accountId = accountId;
+            this.userId = userId;
+            this.balance = balance;
+            this.threshold = threshold;
+            this.low = low;
+            this.crossing = crossing;
+        }
+    }
+
+    private static final class InFlight {
+
+        int changes;
+        long lastApplied;
+    }
+}
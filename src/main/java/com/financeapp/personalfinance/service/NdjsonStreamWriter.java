@@ -0,0 +1,51 @@
+package com.financeapp.personalfinance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows from a database cursor as newline-delimited JSON.
+ * The persistence context is cleared every batch so heap use stays flat however many rows are streamed.
+ */
+@Component
+class NdjsonStreamWriter {
+
+    static final int FETCH_SIZE = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Must run inside the transaction that opened the stream
+     */
+    <T> long write(Stream<T> rows, Class<T> type, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type);
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            out.write(writer.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+            count++;
+
+            // Flush each batch so the client starts receiving data immediately
+            if (count % FETCH_SIZE == 0) {
+                entityManager.clear();
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.financeapp.personalfinance.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rejected-rows files of imports made over HTTP, kept in app.users.import.rejected-dir under a random id for
+ * app.users.import.rejected-retention, so the client can download them, and deleted after that.
+ */
+@Component
+public class RejectedRowsFiles {
+
+    private static final Logger logger = LoggerFactory.getLogger(RejectedRowsFiles.class);
+
+    private static final String PREFIX = "users-import-";
+    private static final String SUFFIX = ".rejected.csv";
+
+    private final Path directory;
+    private final Duration retention;
+
+    public RejectedRowsFiles(@Value("${app.users.import.rejected-dir:${java.io.tmpdir}/user-imports}") Path directory,
+                             @Value("${app.users.import.rejected-retention:24h}") Duration retention) {
+        this.directory = directory;
+        this.retention = retention;
+    }
+
+    /**
+     * A new, empty file
+     */
+    public Path create() throws IOException {
+        Files.createDirectories(directory);
+        return Files.createFile(directory.resolve(PREFIX + UUID.randomUUID() + SUFFIX));
+    }
+
+    /**
+     * Id of a file made by {@link #create()}, for {@link #find(String)}
+     */
+    public String idOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+    }
+
+    /**
+     * The file with the given id, unless it has been deleted
+     */
+    public Optional<Path> find(String id) {
+        UUID uuid;
+        try {
+            // Only ids we hand out, so the id cannot name any other file
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(PREFIX + uuid + SUFFIX);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Delete the files older than the retention
+     */
+    @Scheduled(fixedDelayString = "${app.users.import.rejected-purge-interval:PT1H}")
+    public int purgeExpired() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} expired rejected-rows files", deleted);
+        }
+        return deleted;
+    }
+}
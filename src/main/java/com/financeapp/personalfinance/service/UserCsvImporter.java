@@ -0,0 +1,268 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.dto.UserImportReport;
+import com.financeapp.personalfinance.dto.UsersImportedEvent;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from CSV as a stream: rows are parsed, checked against the {@link User} validation
+ * constraints and written in chunks of {@value #CHUNK_SIZE}. Each chunk takes one query to find emails that
+ * are already taken and is inserted as a JDBC batch in its own transaction, so memory use does not grow with
+ * the size of the file and a failure keeps the chunks committed before it.
+ * <p>
+ * The header row names the columns (firstName, lastName, email, phoneNumber; case, spaces and underscores are ignored,
+ * other columns are skipped). Rejected rows are written to the rejected-rows file with their line number and
+ * reason in front of the original columns, so the file can be corrected and imported again.
+ */
+@Service
+public class UserCsvImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCsvImporter.class);
+
+    static final int CHUNK_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserCsvImporter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import a CSV file, read through a file channel
+     */
+    public UserImportReport importUsers(Path csvFile, Path rejectedRowsFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE)) {
+            return importUsers(reader, rejectedRowsFile);
+        }
+    }
+
+    /**
+     * Import CSV from a reader (not closed here)
+     */
+    public UserImportReport importUsers(Reader csv, Path rejectedRowsFile) throws IOException {
+        long started = System.nanoTime();
+        CsvRecordReader records = new CsvRecordReader(csv);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV input is empty");
+        }
+        Columns columns = Columns.of(header);
+
+        try (BufferedWriter rejectedRows = Files.newBufferedWriter(rejectedRowsFile, StandardCharsets.UTF_8)) {
+            List<String> rejectedHeader = new ArrayList<>(List.of("line", "error"));
+            rejectedHeader.addAll(header);
+            rejectedRows.write(CsvRecordReader.format(rejectedHeader));
+            rejectedRows.newLine();
+
+            Progress progress = new Progress(rejectedRows);
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> fields;
+            while ((fields = records.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                progress.rowsRead++;
+                Row row = new Row(records.getLine(), fields, columns.toUser(fields));
+                String error = validate(row.user);
+                if (error != null) {
+                    progress.reject(row, error);
+                } else {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+                if (progress.rowsRead % PROGRESS_INTERVAL == 0) {
+                    logger.info("User import: {} rows read, {} imported, {} rejected, {} rows/s", progress.rowsRead,
+                            progress.imported, progress.rejected, progress.rowsPerSecond(started));
+                }
+            }
+            importChunk(chunk, progress);
+
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            logger.info("User import finished: {} rows read, {} imported, {} rejected in {} ms",
+                    progress.rowsRead, progress.imported, progress.rejected, elapsedMillis);
+            return new UserImportReport(progress.rowsRead, progress.imported, progress.rejected,
+                    rejectedRowsFile.toString(), elapsedMillis);
+        }
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // In file order, so ids follow the order of the rows
+        Map<String, Row> rowsByEmail = new LinkedHashMap<>();
+        List<Row> duplicates = new ArrayList<>();
+        for (Row row : chunk) {
+            if (rowsByEmail.putIfAbsent(row.emailKey(), row) != null) {
+                duplicates.add(row);
+            }
+        }
+
+        Set<String> taken;
+        try {
+            taken = transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>(
+                        userRepository.findExistingEmails(rowsByEmail.keySet().toArray(new String[0])));
+                List<User> users = new ArrayList<>(rowsByEmail.size());
+                List<String> emails = new ArrayList<>(rowsByEmail.size());
+                for (Map.Entry<String, Row> entry : rowsByEmail.entrySet()) {
+                    if (!existing.contains(entry.getKey())) {
+                        users.add(entry.getValue().user);
+                        emails.add(entry.getKey());
+                    }
+                }
+                userRepository.insertAll(users);
+                eventPublisher.publishEvent(new UsersImportedEvent(emails));
+                return existing;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // An email was taken after the check and the chunk rolled back
+            logger.debug("User import: retrying a chunk row by row after a unique violation", e);
+            taken = transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>();
+                List<String> emails = new ArrayList<>(rowsByEmail.size());
+                for (Map.Entry<String, Row> entry : rowsByEmail.entrySet()) {
+                    if (userRepository.insertIfAbsent(entry.getValue().user)) {
+                        emails.add(entry.getKey());
+                    } else {
+                        existing.add(entry.getKey());
+                    }
+                }
+                eventPublisher.publishEvent(new UsersImportedEvent(emails));
+                return existing;
+            });
+        }
+
+        for (Row row : duplicates) {
+            progress.reject(row, "Duplicate email in the import");
+        }
+        for (Map.Entry<String, Row> entry : rowsByEmail.entrySet()) {
+            if (taken.contains(entry.getKey())) {
+                progress.reject(entry.getValue(), "User with this email already exists");
+            } else {
+                progress.imported++;
+            }
+        }
+    }
+
+    private String validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record Row(long line, List<String> fields, User user) {
+
+        String emailKey() {
+            return user.getEmail().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Positions of the user fields in a row, from the header
+    private record Columns(int firstName, int lastName, int email, int phoneNumber) {
+
+        private static final Pattern HEADER_NOISE = Pattern.compile("[\\s_\uFEFF]");
+
+        static Columns of(List<String> header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheet exports may start with a byte order mark
+                positions.putIfAbsent(HEADER_NOISE.matcher(header.get(i)).replaceAll("").toLowerCase(Locale.ROOT), i);
+            }
+            if (!positions.containsKey("firstname") || !positions.containsKey("lastname")
+                    || !positions.containsKey("email")) {
+                throw new IllegalArgumentException("The CSV header must name the firstName, lastName and email columns");
+            }
+            return new Columns(positions.get("firstname"), positions.get("lastname"), positions.get("email"),
+                    positions.getOrDefault("phonenumber", -1));
+        }
+
+        User toUser(List<String> fields) {
+            return new User(field(fields, firstName), field(fields, lastName), field(fields, email),
+                    field(fields, phoneNumber));
+        }
+
+        // Trimmed value, or null when the column is missing or blank
+        private static String field(List<String> fields, int position) {
+            if (position < 0 || position >= fields.size() || fields.get(position).isBlank()) {
+                return null;
+            }
+            return fields.get(position).trim();
+        }
+    }
+
+    private static final class Progress {
+        private final BufferedWriter rejectedRows;
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        private Progress(BufferedWriter rejectedRows) {
+            this.rejectedRows = rejectedRows;
+        }
+
+        private void reject(Row row, String error) throws IOException {
+            rejected++;
+            List<String> fields = new ArrayList<>(List.of(String.valueOf(row.line()), error));
+            fields.addAll(row.fields());
+            rejectedRows.write(CsvRecordReader.format(fields));
+            rejectedRows.newLine();
+        }
+
+        private long rowsPerSecond(long started) {
+            long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+            return rowsRead * 1_000_000_000L / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.dto.UserChangeEvent;
+import com.financeapp.personalfinance.dto.UsersImportedEvent;
+import com.financeapp.personalfinance.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the lower-cased emails of all users, so a signup with a new email can skip the existence
+ * query. A miss is definite; a hit only means the email may be taken and the database is asked. The unique
+ * index on lower(email) stays the final guard, e.g. for users created by another instance.
+ * <p>
+ * Warmed at startup by streaming the email column, sized for twice the users (at least
+ * app.users.email-filter.expected-emails) at the configured false-positive rate, and rebuilt with
+ * twice the room when it fills up. Emails are added once their change commits, from the {@link UserChangeEvent}s
+ * of the user service and the {@link UsersImportedEvent}s of the CSV import; a Bloom filter cannot forget, so
+ * deleted and replaced emails only cost a database check. Until the first load completes every email is treated
+ * as possibly taken.
+ */
+@Component
+public class UserEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailFilter.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final Counter definiteMisses;
+    private final Counter possibleMatches;
+
+    // Guards swapping in a rebuilt filter against concurrent adds
+    private final Object lock = new Object();
+    private volatile BloomFilter current;
+    private BloomFilter building;
+
+    public UserEmailFilter(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${app.users.email-filter.enabled:true}") boolean enabled,
+                           @Value("${app.users.email-filter.expected-emails:100000}") long expectedEmails,
+                           @Value("${app.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.definiteMisses = checks(meterRegistry, "absent");
+        this.possibleMatches = checks(meterRegistry, "maybe-present");
+    }
+
+    /**
+     * False when no user has the email (definitely); true when one may have it
+     */
+    public boolean mightContain(String email) {
+        BloomFilter filter = current;
+        if (filter == null) {
+            return true;
+        }
+        boolean possible = filter.mightContain(normalize(email));
+        (possible ? possibleMatches : definiteMisses).increment();
+        return possible;
+    }
+
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = normalize(email);
+        synchronized (lock) {
+            if (current != null) {
+                current.put(key);
+            }
+            if (building != null) {
+                building.put(key);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void userChanged(UserChangeEvent event) {
+        if (!event.isDeleted()) {
+            add(event.getEmail());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void usersImported(UsersImportedEvent event) {
+        event.getEmails().forEach(this::add);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Rebuilt before the false-positive rate climbs past the configured one
+    @Scheduled(fixedDelayString = "${app.users.email-filter.resize-check-interval:PT1M}")
+    public void resizeIfFull() {
+        BloomFilter filter = current;
+        if (filter != null && filter.isFull()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Build a new filter from the users table and swap it in. Emails committed while the table is read are
+     * added to both filters, so none is lost in the swap.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        long users = transactionTemplate.execute(status -> userRepository.count());
+        BloomFilter filter = BloomFilter.create(Math.max(expectedEmails, 2 * users), falsePositiveRate);
+        synchronized (lock) {
+            building = filter;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> filter.put(normalize(email)));
+                }
+            });
+            synchronized (lock) {
+                current = filter;
+            }
+            logger.info("User email filter built from {} users in {} ms ({} bits, {} hashes)", users,
+                    (System.nanoTime() - started) / 1_000_000, filter.bitCount(), filter.hashCount());
+        } finally {
+            synchronized (lock) {
+                building = null;
+            }
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.users.email-filter.checks")
+                .description("Email uniqueness pre-checks by the signup email filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bit array with k bit positions per key from double hashing of a 64-bit hash; set bits are never cleared,
+     * so concurrent puts only need an atomic OR
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private BloomFilter(long bits, int hashes, long capacity) {
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bits = bits;
+            this.hashes = hashes;
+            this.capacity = capacity;
+        }
+
+        static BloomFilter create(long capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            int hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+            return new BloomFilter(bits, hashes, capacity);
+        }
+
+        void put(String key) {
+            long hash1 = hash(key);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                long mask = 1L << bit;
+                words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String key) {
+            long hash1 = hash(key);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFull() {
+            return insertions.get() > capacity;
+        }
+
+        long bitCount() {
+            return bits;
+        }
+
+        int hashCount() {
+            return hashes;
+        }
+
+        // FNV-1a over the UTF-16 code units, finished with a 64-bit mixer
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        // MurmurHash3 fmix64
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
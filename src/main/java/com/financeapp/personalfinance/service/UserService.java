@@ -1,21 +1,57 @@
 package com.financeapp.personalfinance.service;
 
+import com.financeapp.personalfinance.config.CacheConfig;
+import com.financeapp.personalfinance.config.CacheGenerations;
+import com.financeapp.personalfinance.config.ReadFromPrimary;
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.UserChangeEvent;
 import com.financeapp.personalfinance.model.User;
 import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.repository.UserSearchOperations;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private NdjsonStreamWriter ndjsonStreamWriter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private UserEmailFilter userEmailFilter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     // In-memory storage (will be replaced with database in Phase 2)
 
 
@@ -38,27 +74,61 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         // Save user entity to DB — this assigns the ID automatically if annotated properly
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Taken since the check (or by a user the email filter has not seen yet); other violations are not
+            // about the email
+            if (!emailTakenByOtherUser(user.getEmail(), null)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("User with this email already exists");
+        }
+        eventPublisher.publishEvent(UserChangeEvent.saved(saved));
+        return saved;
     }
 
     // Get user by ID
     // Get user by ID
     @Transactional(readOnly = true)
+    @ReadFromPrimary
     public Optional<User> getUserById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("User ID must be a positive number");
         }
-        return userRepository.findById(id);
+        User cached = userCache().get(id, User.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = cacheGenerations.current(userCache(), id);
+        return userRepository.findById(id).map(user -> cacheUser(user, generation));
     }
 
 
     // Get user by email
     @Transactional(readOnly = true)
+    @ReadFromPrimary
     public Optional<User> getUserByEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             throw new IllegalArgumentException("Email cannot be null or empty");
         }
-        return userRepository.findByEmail(email.trim().toLowerCase());
+        String normalizedEmail = email.trim().toLowerCase();
+        Cache userIdsByEmail = cacheManager.getCache(CacheConfig.USER_IDS_BY_EMAIL);
+        Long cachedId = userIdsByEmail.get(normalizedEmail, Long.class);
+        if (cachedId != null) {
+            Optional<User> user = getUserById(cachedId);
+            // The email may have been changed since it was cached
+            if (user.isPresent() && normalizedEmail.equalsIgnoreCase(user.get().getEmail())) {
+                return user;
+            }
+        }
+
+        Optional<User> user = userRepository.findByEmailIgnoreCase(normalizedEmail);
+        // Only the id is cached here: its generation could not be taken before the read, so the row is left
+        // for the next lookup by id to cache
+        user.ifPresent(found -> userIdsByEmail.put(normalizedEmail, found.getId()));
+        return user;
     }
 
     @Transactional(readOnly = true)
@@ -66,6 +136,22 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    // Get a page of users ordered by id, starting after the given cursor
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(Long after, int limit) {
+        KeysetPage.checkLimit(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(KeysetPage.cursor(after), Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, User::getId);
+    }
+
+    // Export all users as newline-delimited JSON, streamed from a database cursor
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            return ndjsonStreamWriter.write(users, User.class, out);
+        }
+    }
+
     // Update user
     public User updateUser(Long id, User updatedUser) {
         if (id == null || id <= 0) {
@@ -74,8 +160,9 @@ public class UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
-        // Check if email is being changed and new email already exists
-        if (!existingUser.getEmail().equals(updatedUser.getEmail()) &&
+        // Check if email is being changed and new email already exists; emails match case-insensitively, so a
+        // change of case only is not a change
+        if (!existingUser.getEmail().equalsIgnoreCase(updatedUser.getEmail()) &&
                 emailExists(updatedUser.getEmail())) {
             throw new IllegalArgumentException("User with this email already exists");
         }
@@ -88,7 +175,19 @@ public class UserService {
         existingUser.setUpdatedAt(LocalDateTime.now());
 
         // Save and return updated user
-        return userRepository.save(existingUser);
+        User saved;
+        try {
+            // Flushed here so a unique violation surfaces in this call rather than at commit
+            saved = userRepository.saveAndFlush(existingUser);
+        } catch (DataIntegrityViolationException e) {
+            if (!emailTakenByOtherUser(updatedUser.getEmail(), id)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("User with this email already exists");
+        }
+        eventPublisher.publishEvent(UserChangeEvent.saved(saved));
+        evictUser(id);
+        return saved;
     }
 
     // Delete user
@@ -99,6 +198,8 @@ public class UserService {
 
         if (userRepository.existsById(id)) {
             userRepository.deleteById(id);
+            eventPublisher.publishEvent(UserChangeEvent.deleted(id));
+            evictUser(id);
             return true;
         }
         return false;
@@ -109,7 +210,21 @@ public class UserService {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
-        return userRepository.findByEmail(email.trim().toLowerCase()).isPresent();
+        // Most new emails are a definite miss in the filter and need no query
+        if (!userEmailFilter.mightContain(email)) {
+            return false;
+        }
+        return userRepository.existsByEmailIgnoreCase(email.trim());
+    }
+
+    // Checked after a failed save to tell a unique violation on the email from other constraint violations
+    private boolean emailTakenByOtherUser(String email, Long userId) {
+        if (email == null || email.trim().isEmpty()) {
+            return false;
+        }
+        return userId == null
+                ? userRepository.existsByEmailIgnoreCase(email.trim())
+                : userRepository.existsByEmailIgnoreCaseAndIdNot(email.trim(), userId);
     }
 
     @Transactional(readOnly = true)
@@ -117,11 +232,45 @@ public class UserService {
         return userRepository.count();
     }
 
+    /**
+     * One page of users whose first name, last name or email contains the query, best matches first
+     * (see {@link UserSearchOperations}). Fetches one user more than the page size, which only tells the
+     * caller that another page follows.
+     */
     @Transactional(readOnly = true)
-    public List<User> searchByFirstName(String firstName) {
-        if (firstName == null || firstName.trim().isEmpty()) {
+    public List<User> searchUsers(String query, int page, int size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if ((long) page * size >= UserSearchOperations.MAX_RESULTS) {
+            throw new IllegalArgumentException("Search results are limited to the first "
+                    + UserSearchOperations.MAX_RESULTS + " matches; refine the query");
+        }
+        if (query == null || query.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        return userRepository.findByFirstNameContainingIgnoreCase(firstName.trim());
+        int offset = page * size;
+        int limit = Math.min(size + 1, UserSearchOperations.MAX_RESULTS - offset);
+        return userRepository.search(query.trim().toLowerCase(Locale.ROOT), offset, limit);
+    }
+
+    private Cache userCache() {
+        return cacheManager.getCache(CacheConfig.USERS);
+    }
+
+    // Cached entities are detached and shared between requests, so callers must treat them as read-only.
+    // The put is dropped if the user was evicted after the generation was taken.
+    private User cacheUser(User user, long generation) {
+        entityManager.detach(user);
+        cacheGenerations.put(userCache(), user.getId(), user, generation);
+        return user;
+    }
+
+    // Takes effect when the surrounding transaction commits
+    private void evictUser(Long id) {
+        cacheGenerations.evict(userCache(), id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+-- Monthly journal partitions are created ahead of time by the application (JournalPartitionMaintainer,
+-- app.journal.partitions.*), or by hand with SELECT create_transactions_partitions(12).
+--
+-- A month without a partition collects its rows in transactions_default, and from then on
+-- CREATE TABLE ... PARTITION OF fails for that month. The partition is therefore built as a plain
+-- table, the month's rows are moved into it from the default partition and it is attached.
+
+DROP FUNCTION IF EXISTS create_transactions_partition(DATE);
+
+-- Creates the partition for the month containing the given date; false if it already exists
+CREATE FUNCTION create_transactions_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    from_date      DATE := date_trunc('month', month_start)::DATE;
+    to_date        DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'transactions_' || to_char(from_date, 'YYYY_MM');
+BEGIN
+    -- One creator at a time across sessions (held until the transaction ends)
+    PERFORM pg_advisory_xact_lock(hashtext('create_transactions_partition'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM transactions_default WHERE created_at >= %L AND created_at < %L RETURNING *) ' ||
+        'INSERT INTO %I SELECT * FROM moved',
+        from_date, to_date, partition_name);
+    EXECUTE format('ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, from_date, to_date);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates the partitions for the current month and the given number of months after it; returns how many were new
+CREATE OR REPLACE FUNCTION create_transactions_partitions(months_ahead INT) RETURNS INT AS $$
+DECLARE
+    created INT := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        IF create_transactions_partition((date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,20 @@
+-- Hot-account credits (journal rows of type CREDIT without balance_after) that have reached the accounts row.
+-- HotAccountAccumulator adds to applied_credits in the transaction of every flush, so journaled credits beyond it
+-- were still in memory when the process stopped, and are applied at the next start.
+
+CREATE TABLE IF NOT EXISTS hot_account_credits (
+    account_id      BIGINT PRIMARY KEY,
+    applied_credits NUMERIC(17, 2) NOT NULL,
+    updated_at      TIMESTAMP(6)   NOT NULL
+);
+
+-- Credits journaled before this migration were flushed at shutdown
+INSERT INTO hot_account_credits (account_id, applied_credits, updated_at)
+SELECT account_id, SUM(amount), now()
+FROM transactions
+WHERE transaction_type = 'CREDIT' AND balance_after IS NULL
+GROUP BY account_id;
+
+-- Serves the sum of an account's hot credits at startup from the index alone
+CREATE INDEX IF NOT EXISTS idx_transactions_hot_credits ON transactions (account_id) INCLUDE (amount)
+    WHERE transaction_type = 'CREDIT' AND balance_after IS NULL;
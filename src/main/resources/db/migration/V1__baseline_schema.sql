@@ -0,0 +1,25 @@
+-- Baseline schema for the tables that were previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps this a no-op on databases that already have them.
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name   VARCHAR(50)  NOT NULL,
+    last_name    VARCHAR(50)  NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    phone_number VARCHAR(20),
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_name   VARCHAR(100)   NOT NULL,
+    account_number VARCHAR(50)    NOT NULL UNIQUE,
+    account_type   VARCHAR(255)   NOT NULL
+        CHECK (account_type IN ('CHECKING', 'SAVINGS', 'CREDIT_CARD', 'INVESTMENT')),
+    balance        NUMERIC(15, 2) NOT NULL,
+    currency       VARCHAR(3)     NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)   NOT NULL
+);
@@ -0,0 +1,46 @@
+-- Append-only journal of balance movements.
+-- Range-partitioned by month on created_at so old months can be detached/archived without
+-- touching the hot partition. Ids come from a sequence with INCREMENT BY 50 to match the
+-- pooled allocationSize on the entity, which lets hibernate batch the inserts.
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id                      BIGINT         NOT NULL,
+    account_id              BIGINT         NOT NULL,
+    transaction_type        VARCHAR(20)    NOT NULL
+        CHECK (transaction_type IN ('CREDIT', 'DEBIT', 'TRANSFER_IN', 'TRANSFER_OUT', 'BALANCE_ADJUSTMENT')),
+    amount                  NUMERIC(15, 2) NOT NULL,
+    balance_after           NUMERIC(15, 2),
+    counterparty_account_id BIGINT,
+    created_at              TIMESTAMP(6)   NOT NULL,
+    -- the partition key has to be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_account_created ON transactions (account_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_transactions_account_id ON transactions (account_id, id);
+
+-- Creates the partition for the month containing the given date (idempotent).
+-- Run ahead of time for upcoming months; rows outside every monthly range land in transactions_default.
+CREATE OR REPLACE FUNCTION create_transactions_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    to_date   DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+        'transactions_' || to_char(from_date, 'YYYY_MM'), from_date, to_date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Current month plus the next twelve
+DO $$
+BEGIN
+    FOR i IN 0..12 LOOP
+        PERFORM create_transactions_partition((date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE);
+    END LOOP;
+END;
+$$;
+
+CREATE TABLE IF NOT EXISTS transactions_default PARTITION OF transactions DEFAULT;
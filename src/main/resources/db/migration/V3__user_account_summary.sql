@@ -0,0 +1,16 @@
+-- Per-user aggregate of accounts, maintained incrementally by the application
+-- so the dashboard summary and total-balance endpoints are primary-key lookups.
+
+CREATE TABLE user_account_summary (
+    user_id       BIGINT PRIMARY KEY,
+    account_count BIGINT         NOT NULL,
+    total_balance NUMERIC(17, 2) NOT NULL,
+    min_balance   NUMERIC(15, 2),
+    max_balance   NUMERIC(15, 2),
+    updated_at    TIMESTAMP(6)   NOT NULL
+);
+
+INSERT INTO user_account_summary (user_id, account_count, total_balance, min_balance, max_balance, updated_at)
+SELECT user_id, COUNT(*), SUM(balance), MIN(balance), MAX(balance), now()
+FROM accounts
+GROUP BY user_id;
@@ -0,0 +1,13 @@
+-- Responses of credit, debit and transfer requests made with an Idempotency-Key header,
+-- so client retries are answered from here instead of being applied again.
+
+CREATE TABLE idempotency_keys (
+    idempotency_key     VARCHAR(255) PRIMARY KEY,
+    request_fingerprint VARCHAR(255) NOT NULL,
+    response_status     INTEGER,
+    response_body       TEXT,
+    created_at          TIMESTAMP(6) NOT NULL,
+    expires_at          TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,19 @@
+-- Indexes for the account and user lookups in AccountRepository / UserRepository.
+-- Each one is checked by QueryPlanRegressionTest, which fails if a query falls back to a sequential scan.
+
+-- Accounts of a user: findByUserId*, countByUserId, the balance totals and the balance-ordered listing.
+-- Few accounts per user, so the type and currency filters are applied on top of this index.
+CREATE INDEX IF NOT EXISTS idx_accounts_user_id_balance ON accounts (user_id, balance DESC);
+
+-- Keyset pages of one account type (WHERE account_type = ? AND id > ? ORDER BY id LIMIT ?)
+CREATE INDEX IF NOT EXISTS idx_accounts_type_id ON accounts (account_type, id);
+
+-- Recently created / inactive accounts
+CREATE INDEX IF NOT EXISTS idx_accounts_created_at ON accounts (created_at);
+CREATE INDEX IF NOT EXISTS idx_accounts_updated_at ON accounts (updated_at);
+
+-- Low-balance report: credit cards are never reported, so they are left out of the index
+CREATE INDEX IF NOT EXISTS idx_accounts_low_balance ON accounts (balance) WHERE account_type <> 'CREDIT_CARD';
+
+-- Case-insensitive email lookups (WHERE lower(email) = lower(?))
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
@@ -0,0 +1,14 @@
+-- Account ids move from an identity column to a sequence with INCREMENT BY 50, matching the pooled
+-- allocationSize on the entity. Identity ids are only known after each single-row INSERT, which keeps
+-- hibernate from batching account inserts (bulk account creation).
+
+CREATE SEQUENCE IF NOT EXISTS accounts_seq START WITH 1 INCREMENT BY 50;
+
+-- The pooled optimizer hands out the 50 ids below each value it fetches, so the first fetched value
+-- has to be at least 50 above the highest existing id.
+SELECT setval('accounts_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM accounts), false);
+
+ALTER TABLE accounts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+-- Plain SQL inserts keep getting ids without colliding with the blocks handed out to hibernate
+ALTER TABLE accounts ALTER COLUMN id SET DEFAULT nextval('accounts_seq');
+ALTER SEQUENCE accounts_seq OWNED BY accounts.id;
@@ -0,0 +1,20 @@
+-- Indexes for the user search (UserSearchOperations): ranked substring and prefix matches on first name,
+-- last name and email. pg_trgm is a trusted extension (PostgreSQL 13+), so the database owner can create it.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring matches (LIKE '%term%', three or more characters) across all three fields at once
+CREATE INDEX IF NOT EXISTS idx_users_search_trgm
+    ON users USING gin (lower(first_name || ' ' || last_name || ' ' || email) gin_trgm_ops);
+
+-- Prefix matches, read in index order (ORDER BY ... USING ~<~) so a LIMIT stops the scan early.
+-- text_pattern_ops serves LIKE 'term%' whatever the database collation.
+CREATE INDEX IF NOT EXISTS idx_users_first_name_prefix ON users (lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_prefix ON users (lower(last_name) text_pattern_ops);
+
+-- Also serves the case-insensitive email equality lookups, so it replaces idx_users_email_lower
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+DROP INDEX IF EXISTS idx_users_email_lower;
+
+-- Statistics on the indexed expressions; without them the planner misjudges how many rows match a fragment
+ANALYZE users;
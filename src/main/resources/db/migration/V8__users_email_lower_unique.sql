@@ -0,0 +1,7 @@
+-- Case-insensitive email uniqueness. Signups skip the existence query when the in-memory email filter
+-- (UserEmailFilter) has never seen the address, so the database itself has to reject a case variant of a
+-- taken email. Fails if existing rows already differ only in case; those have to be merged first.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_lower ON users (lower(email) text_pattern_ops);
+
+-- Serves the email prefix search and the equality lookups as well, so it replaces idx_users_email_prefix
+DROP INDEX IF EXISTS idx_users_email_prefix;
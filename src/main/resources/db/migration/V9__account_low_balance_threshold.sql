@@ -0,0 +1,7 @@
+-- Per-account low-balance threshold; null means the global app.accounts.low-balance.threshold applies
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS low_balance_threshold NUMERIC(15, 2);
+
+-- The low-balance index (LowBalanceIndex) loads the accounts below the global threshold through
+-- idx_accounts_low_balance plus every account with its own threshold through this one
+CREATE INDEX IF NOT EXISTS idx_accounts_own_low_balance_threshold ON accounts (id)
+    WHERE low_balance_threshold IS NOT NULL AND account_type <> 'CREDIT_CARD';
@@ -0,0 +1,57 @@
+package com.financeapp.personalfinance;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.User;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unsaved users and accounts with unique emails and account numbers, for tests that share a database with
+ * other test classes and earlier runs:
+ * <pre>
+ * User user = userRepository.save(TestFixtures.user("Batch", "Transfer"));
+ * Account account = accountService.createAccount(TestFixtures.account(user, "BATCH", "100.00"));
+ * </pre>
+ */
+public final class TestFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestFixtures() {
+    }
+
+    /**
+     * A user whose email starts with the lower-cased first name
+     */
+    public static User user(String firstName, String lastName) {
+        return new User(firstName, lastName, firstName.toLowerCase(Locale.ROOT) + unique() + "@test.com", null);
+    }
+
+    /**
+     * An account number starting with the given prefix
+     */
+    public static String accountNumber(String prefix) {
+        return prefix + "-" + unique();
+    }
+
+    /**
+     * A checking account of the user holding the given balance in the default currency
+     */
+    public static Account account(User user, String prefix, String balance) {
+        return account(user, prefix, Account.AccountType.CHECKING, balance);
+    }
+
+    public static Account account(User user, String prefix, Account.AccountType type, String balance) {
+        Account account = new Account(prefix + " account", accountNumber(prefix), type, user.getId());
+        account.setBalance(Money.of(new BigDecimal(balance), Money.DEFAULT_CURRENCY));
+        return account;
+    }
+
+    // Unique within the run, and across runs through the clock
+    private static String unique() {
+        return System.nanoTime() + "-" + SEQUENCE.incrementAndGet();
+    }
+}
@@ -0,0 +1,107 @@
+package com.financeapp.personalfinance.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In virtual-thread mode connection checkouts queue on a semaphore the size of the pool instead of
+ * failing after the pool's connection timeout
+ */
+@SpringBootTest(properties = {
+        // A database of its own: the different pool settings make this a separate context, which re-creates the schema
+        "spring.datasource.url=jdbc:h2:mem:connection_limit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.datasource.hikari.minimum-idle=3",
+        // Hikari's minimum; far shorter than the checkouts below take to drain
+        "spring.datasource.hikari.connection-timeout=250",
+        "app.datasource.connection-permit-timeout=30s"
+})
+@ActiveProfiles("test")
+class ConnectionLimitTest {
+
+    private static final int POOL_SIZE = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void poolIsFrontedByASemaphoreOfTheSameSize() {
+        ConcurrencyLimitingDataSource limited = limited();
+        assertNotNull(limited);
+        assertEquals(POOL_SIZE, limited.getAvailablePermits());
+        assertEquals(POOL_SIZE, meterRegistry.get("app.datasource.connection.permits.available").gauge().value());
+    }
+
+    @Test
+    void checkoutsBeyondThePoolWaitInsteadOfTimingOut() throws Exception {
+        AtomicInteger checkedOut = new AtomicInteger();
+        AtomicInteger mostCheckedOut = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 30 checkouts of 100 ms each through a pool of 3 take about a second
+            for (int i = 0; i < 30; i++) {
+                results.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection();
+                         Statement statement = connection.createStatement()) {
+                        mostCheckedOut.accumulateAndGet(checkedOut.incrementAndGet(), Math::max);
+                        statement.execute("SELECT 1");
+                        Thread.sleep(100);
+                        checkedOut.decrementAndGet();
+                        return 1;
+                    }
+                }));
+            }
+        }
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get());
+        }
+        assertTrue(mostCheckedOut.get() <= POOL_SIZE, "checked out at once: " + mostCheckedOut.get());
+        assertEquals(POOL_SIZE, limited().getAvailablePermits());
+    }
+
+    @Test
+    void permitIsReturnedOncePerCheckout() throws SQLException {
+        ConcurrencyLimitingDataSource single =
+                new ConcurrencyLimitingDataSource(dataSource, 1, Duration.ofMillis(100));
+        Connection connection = single.getConnection();
+        assertThrows(SQLTransientConnectionException.class, single::getConnection);
+
+        connection.close();
+        connection.close();
+        assertEquals(1, single.getAvailablePermits());
+        try (Connection again = single.getConnection()) {
+            assertEquals(0, single.getAvailablePermits());
+        }
+        assertEquals(1, single.getAvailablePermits());
+    }
+
+    private ConcurrencyLimitingDataSource limited() {
+        return DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitingDataSource.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.financeapp.personalfinance.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read-only transactions against two local "replica" databases (separate H2 databases, each with a marker row
+ * naming it and the lag it reports), with the primary as the test profile's database.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_A + "," + ReplicaRoutingTest.REPLICA_B,
+        "app.datasource.replicas.lag-query=SELECT lag_seconds FROM replica_marker",
+        "app.datasource.replicas.max-lag=5s",
+        // Checked by the tests themselves
+        "app.datasource.replicas.lag-check-interval=1h"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_A = "jdbc:h2:mem:replica_a;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_B = "jdbc:h2:mem:replica_b;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingConfig.ReplicaRoutingPostProcessor replicaRouting;
+
+    // The replicas have no application schema, so they report a lag that keeps the application's own
+    // read-only work at startup on the primary
+    @BeforeAll
+    static void createReplicas() throws SQLException {
+        createMarker(REPLICA_A, "replica_a");
+        createMarker(REPLICA_B, "replica_b");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_marker (name VARCHAR(20), lag_seconds DOUBLE PRECISION)");
+        jdbcTemplate.update("DELETE FROM replica_marker");
+        jdbcTemplate.update("INSERT INTO replica_marker VALUES ('primary', 0)");
+        setLag(REPLICA_A, 0);
+        setLag(REPLICA_B, 0);
+        replicaRouting.getRouting().checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransactionsGoRoundRobinOverTheReplicas() {
+        Set<String> readFrom = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            readFrom.add(readMarker(true));
+        }
+        assertEquals(Set.of("replica_a", "replica_b"), readFrom);
+        assertEquals("primary", readMarker(false));
+    }
+
+    @Test
+    void laggingReplicasAreSkipped() throws SQLException {
+        setLag(REPLICA_A, 60);
+        replicaRouting.getRouting().checkReplicas();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica_b", readMarker(true));
+        }
+
+        setLag(REPLICA_B, 60);
+        replicaRouting.getRouting().checkReplicas();
+        assertEquals("primary", readMarker(true));
+    }
+
+    @Test
+    void clientsThatJustWroteReadFromThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(10));
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        assertEquals("primary", readThroughFilter(filter, new MockHttpServletRequest("PUT", "/api/v1/accounts/1/credit"), write));
+        Cookie cookie = write.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest readAfterWrite = new MockHttpServletRequest("GET", "/api/v1/accounts/1");
+        readAfterWrite.setCookies(cookie);
+        assertEquals("primary", readThroughFilter(filter, readAfterWrite, new MockHttpServletResponse()));
+
+        assertTrue(readThroughFilter(filter, new MockHttpServletRequest("GET", "/api/v1/accounts/1"),
+                new MockHttpServletResponse()).startsWith("replica_"));
+    }
+
+    private String readThroughFilter(ReadYourWritesFilter filter, MockHttpServletRequest request,
+                                     MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> readFrom = new AtomicReference<>();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                readFrom.set(readMarker(true));
+            }
+        });
+        return readFrom.get();
+    }
+
+    private String readMarker(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM replica_marker", String.class));
+    }
+
+    private static void createMarker(String url, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE replica_marker (name VARCHAR(20), lag_seconds DOUBLE PRECISION)");
+            statement.execute("INSERT INTO replica_marker VALUES ('" + name + "', 3600)");
+        }
+    }
+
+    private static void setLag(String url, double seconds) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE replica_marker SET lag_seconds = " + seconds);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.financeapp.personalfinance.config;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers on the SQL statements a request issued, as counted by {@link SqlStatementFilter}:
+ * <pre>
+ * mockMvc.perform(get("/api/v1/accounts/{id}", id))
+ *         .andExpect(status().isOk())
+ *         .andExpect(SqlStatementMatchers.statements(1));
+ * </pre>
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> assertEquals(expected, stats(result).getStatementCount(),
+                () -> "SQL statements issued by " + describe(result));
+    }
+
+    public static ResultMatcher roundTrips(int expected) {
+        return result -> assertEquals(expected, stats(result).getRoundTripCount(),
+                () -> "Database round trips of " + describe(result));
+    }
+
+    /**
+     * No SQL executed {@code threshold} or more times (outside batches) in the request
+     */
+    public static ResultMatcher noRepeatedStatements(int threshold) {
+        return result -> {
+            Map<String, Integer> repeated = stats(result).getRepeatedStatements(threshold);
+            assertTrue(repeated.isEmpty(), () -> describe(result) + " repeated statements: " + repeated);
+        };
+    }
+
+    private static SqlStatementStats stats(MvcResult result) {
+        SqlStatementStats stats = (SqlStatementStats) result.getRequest().getAttribute(SqlStatementFilter.STATS_ATTRIBUTE);
+        assertNotNull(stats, "No SQL statement stats on the request; is statement counting enabled?");
+        return stats;
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
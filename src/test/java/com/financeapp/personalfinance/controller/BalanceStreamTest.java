@@ -0,0 +1,111 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.dto.BalanceEvent;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.BalanceEventHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Balance events reach a connected client over HTTP once the changes behind them commit
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BalanceStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceEventHub balanceEvents;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BlockingQueue<BalanceEvent> received = new LinkedBlockingQueue<>();
+    private Disposable stream;
+    private Account checking;
+    private Account savings;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        User user = userRepository.save(TestFixtures.user("Stream", "Listener"));
+        checking = createAccount(user);
+        savings = createAccount(user);
+
+        int subscribers = balanceEvents.getSubscriberCount();
+        stream = WebClient.create("http://localhost:" + port).get()
+                .uri("/api/v1/accounts/user/{userId}/stream", user.getId())
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<BalanceEvent>>() {})
+                .filter(event -> BalanceEventHub.EVENT_NAME.equals(event.event()))
+                .subscribe(event -> received.add(event.data()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (balanceEvents.getSubscriberCount() == subscribers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.dispose();
+    }
+
+    @Test
+    void committedChangesAreStreamed() throws InterruptedException {
+        accountService.creditAccount(checking.getId(), new BigDecimal("25.50"));
+        assertEvent(checking, "125.50");
+
+        accountService.transferBetweenAccounts(checking.getId(), savings.getId(), new BigDecimal("5.50"));
+        assertEvent(checking, "120.00");
+        assertEvent(savings, "105.50");
+
+        accountService.updateBalance(savings.getId(), new BigDecimal("42.00"));
+        assertEvent(savings, "42.00");
+    }
+
+    @Test
+    void rolledBackChangesAreNotStreamed() throws InterruptedException {
+        // The transfer debits the source first, then fails on the missing destination and rolls back
+        assertThrows(RuntimeException.class,
+                () -> accountService.transferBetweenAccounts(checking.getId(), -1L, new BigDecimal("10.00")));
+        accountService.debitAccount(savings.getId(), new BigDecimal("1.00"));
+        assertEvent(savings, "99.00");
+    }
+
+    private void assertEvent(Account account, String balance) throws InterruptedException {
+        BalanceEvent event = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event, "no balance event");
+        assertEquals(account.getId(), event.getAccountId());
+        assertEquals(new BigDecimal(balance), event.getBalance());
+    }
+
+    private Account createAccount(User user) {
+        return accountService.createAccount(TestFixtures.account(user, "STREAM", Account.AccountType.SAVINGS, "100.00"));
+    }
+}
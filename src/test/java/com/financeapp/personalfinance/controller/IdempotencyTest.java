@@ -0,0 +1,199 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Writes sent with an Idempotency-Key are applied once: retries replay the stored response, from memory or
+ * from the table, reusing a key for another request is rejected, and failed requests can be retried
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Account account;
+    private Account other;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(TestFixtures.user("Idempotent", "Client"));
+        account = accountService.createAccount(TestFixtures.account(user, "IDEM", "100.00"));
+        other = accountService.createAccount(TestFixtures.account(user, "IDEM", "0.00"));
+        key = "key-" + System.nanoTime();
+    }
+
+    @Test
+    void retriedCreditIsAppliedOnceAndReplayed() throws Exception {
+        MvcResult first = mockMvc.perform(credit(account, "25.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(credit(account, "25.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertBalance(account, "125.00");
+        assertEquals(1, journalSize(account));
+    }
+
+    @Test
+    void retryOnAnotherInstanceIsReplayedFromTheTable() throws Exception {
+        mockMvc.perform(transfer(account, other, "40.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk());
+
+        // A fresh instance has nothing in memory, so only the table can answer
+        IdempotencyService otherInstance = beanFactory.createBean(IdempotencyService.class);
+        ResponseEntity<AccountController.TransferResponse> replayed = otherInstance.execute(key,
+                "transfer:" + account.getId() + ":" + other.getId() + ":40", AccountController.TransferResponse.class,
+                () -> fail("The operation must not run again"));
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(account.getId(), replayed.getBody().getFromAccountId());
+        assertBalance(account, "60.00");
+        assertBalance(other, "40.00");
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        mockMvc.perform(credit(account, "10.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(credit(account, "11.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(debit(account, "10.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isUnprocessableEntity());
+        // The same amount written differently is the same request
+        mockMvc.perform(credit(account, "10.0").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+        assertBalance(account, "110.00");
+    }
+
+    @Test
+    void failedRequestIsNotStoredAndCanBeRetried() throws Exception {
+        mockMvc.perform(debit(account, "150.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isConflict());
+        accountService.creditAccount(account.getId(), new BigDecimal("50.00"));
+
+        mockMvc.perform(debit(account, "150.00").header(IdempotencyService.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        assertBalance(account, "0.00");
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstRequestAndReplaysIt() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(key, "fingerprint", String.class, () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok("first");
+                }));
+        running.await(10, TimeUnit.SECONDS);
+
+        // Blocked on the key the first request has inserted but not committed
+        CompletableFuture<ResponseEntity<String>> retry = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(key, "fingerprint", String.class,
+                        () -> ResponseEntity.ok("second")));
+        Thread.sleep(200);
+        assertFalse(retry.isDone());
+        release.countDown();
+
+        assertNull(first.join().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        ResponseEntity<String> replayed = retry.join();
+        assertEquals("first", replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void blankKeyIsRejected() throws Exception {
+        mockMvc.perform(credit(account, "10.00").header(IdempotencyService.HEADER, " "))
+                .andExpect(status().isBadRequest());
+        assertBalance(account, "100.00");
+    }
+
+    private void assertBalance(Account account, String balance) {
+        assertEquals(Money.toMinorUnits(new BigDecimal(balance)),
+                accountService.getAccountById(account.getId()).orElseThrow().getBalanceMinorUnits());
+    }
+
+    private int journalSize(Account account) {
+        return accountService.getTransactionsPage(account.getId(), null, 10).getItems().size();
+    }
+
+    private static MockHttpServletRequestBuilder credit(
+            Account account, String amount) {
+        return put("/api/v1/accounts/{id}/credit", account.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":" + amount + "}");
+    }
+
+    private static MockHttpServletRequestBuilder debit(
+            Account account, String amount) {
+        return put("/api/v1/accounts/{id}/debit", account.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":" + amount + "}");
+    }
+
+    private static MockHttpServletRequestBuilder transfer(
+            Account from, Account to, String amount) {
+        return post("/api/v1/accounts/transfer").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":" + from.getId() + ",\"toAccountId\":" + to.getId()
+                        + ",\"amount\":" + amount + "}");
+    }
+}
@@ -0,0 +1,97 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Service, repository, pool and Hibernate metrics are recorded per method and outcome and published in
+ * Prometheus format
+ */
+@SpringBootTest(properties = {
+        // A database of its own: exporting metrics makes this a separate context, which re-creates the schema
+        "spring.datasource.url=jdbc:h2:mem:metrics;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void serviceCallsAreTimedByMethodAndOutcome() throws Exception {
+        User user = userRepository.save(TestFixtures.user("Metrics", "Reader"));
+        Account account = accountService.createAccount(TestFixtures.account(user, "METRICS", "0.00"));
+        double found = serviceCount("getAccountById", "SUCCESS", "none");
+        double failed = serviceCount("creditAccount", "ERROR", "RuntimeException");
+
+        mockMvc.perform(get("/api/v1/accounts/{id}", account.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/accounts/{id}/credit", -1L).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":1.00}"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(found + 1, serviceCount("getAccountById", "SUCCESS", "none"));
+        assertEquals(failed + 1, serviceCount("creditAccount", "ERROR", "RuntimeException"));
+    }
+
+    @Test
+    void repositoryPoolAndHibernateMetricsArePublished() throws Exception {
+        mockMvc.perform(get("/api/v1/users/stats")).andExpect(status().isOk());
+
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "UserRepository").tag("method", "count").timer());
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertContains(scrape, "app_service_invocations_seconds_bucket{");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket{");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_bucket{");
+        assertContains(scrape, "hikaricp_connections_pending{");
+        assertContains(scrape, "hibernate_statements_total{");
+        assertContains(scrape, "hibernate_flushes_total{");
+        assertContains(scrape, "http_server_requests_seconds_bucket{");
+    }
+
+    private double serviceCount(String method, String outcome, String exception) {
+        Timer timer = meterRegistry.find("app.service.invocations")
+                .tag("class", "AccountService").tag("method", method)
+                .tag("outcome", outcome).tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static void assertContains(String scrape, String series) {
+        assertTrue(scrape.contains(series), "missing " + series);
+    }
+}
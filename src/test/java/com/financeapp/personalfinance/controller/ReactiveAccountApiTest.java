@@ -0,0 +1,93 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.config.ReactiveApiConfig;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The reactive read API answers with the same JSON as the servlet endpoints it mirrors, read over R2DBC from the
+ * same H2 database.
+ */
+@SpringBootTest(properties = {
+        "app.reactive-api.enabled=true",
+        "app.reactive-api.port=0",
+        "app.reactive-api.threads=2",
+        // A database of its own: this context re-creates the schema, which would pull it from under the cached
+        // contexts of other test classes
+        "spring.datasource.url=jdbc:h2:mem:reactive_api;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "app.reactive-api.r2dbc.url=r2dbc:h2:mem:///reactive_api?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReactiveAccountApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReactiveApiConfig.ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private WebTestClient client;
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveApiServer.getPort()).build();
+        user = userRepository.save(TestFixtures.user("Reactive", "Reader"));
+        account = accountService.createAccount(TestFixtures.account(user, "REACTIVE", "250.10"));
+        accountService.createAccount(TestFixtures.account(user, "REACTIVE", "1000.00"));
+        // The servlet side answers from the database too, not from the entities cached on creation
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void accountLookupsMatchTheServletApi() throws Exception {
+        assertSameJson("/api/v1/accounts/" + account.getId());
+        assertSameJson("/api/v1/accounts/number/" + account.getAccountNumber());
+        assertSameJson("/api/v1/accounts/user/" + user.getId());
+        assertSameJson("/api/v1/accounts/user/" + user.getId() + "/total-balance");
+        assertSameJson("/api/v1/accounts/user/-1");
+        assertSameJson("/api/v1/accounts/user/-1/total-balance");
+    }
+
+    @Test
+    void missingAccountsAreNotFound() {
+        client.get().uri("/api/v1/accounts/{id}", -1).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/v1/accounts/number/{number}", "NO-SUCH-NUMBER").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/v1/accounts/{id}", "abc").exchange().expectStatus().isBadRequest();
+    }
+
+    private void assertSameJson(String path) throws Exception {
+        String servlet = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        client.get().uri(path).exchange()
+                .expectStatus().isOk()
+                .expectBody().json(servlet, true);
+    }
+}
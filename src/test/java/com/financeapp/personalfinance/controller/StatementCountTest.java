@@ -0,0 +1,235 @@
+package com.financeapp.personalfinance.controller;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.service.AccountService;
+import com.financeapp.personalfinance.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.financeapp.personalfinance.config.SqlStatementMatchers.noRepeatedStatements;
+import static com.financeapp.personalfinance.config.SqlStatementMatchers.roundTrips;
+import static com.financeapp.personalfinance.config.SqlStatementMatchers.statements;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each controller endpoint issues, so a change that adds queries
+ * (or an N+1 loop) shows up as a failing count. Lookups are measured with empty caches.
+ * <p>
+ * The counts are those of the test profile's H2 database; on PostgreSQL balance updates return the row
+ * from the UPDATE itself, one statement less each.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementCountTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        // Through the service, so the user is in the search index
+        user = userService.createUser(new User("Statement", "Counter", "statements" + n + "@test.com", null));
+        first = createAccount("STMT-" + n + "-1", Account.AccountType.CHECKING);
+        second = createAccount("STMT-" + n + "-2", Account.AccountType.SAVINGS);
+        // Takes blocks of account and journal ids from the sequences outside the measured requests; one block
+        // (50 ids) each covers the rows of every test in this class
+        accountService.creditAccount(second.getId(), new BigDecimal("0.01"));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void createUser() throws Exception {
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"New\",\"lastName\":\"User\",\"email\":\"new" + SEQUENCE.get() + "@test.com\"}"))
+                .andExpect(status().isCreated())
+                // The email filter answers the uniqueness check for a new email, leaving the insert
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void createAccount() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountName\":\"New account\",\"accountNumber\":\"STMT-NEW-" + SEQUENCE.get()
+                                + "\",\"accountType\":\"CHECKING\",\"userId\":" + user.getId() + "}"))
+                .andExpect(status().isCreated())
+                // User and account-number checks, the insert, and the summary row upsert and update
+                .andExpect(statements(5));
+    }
+
+    @Test
+    void createAccountsBulk() throws Exception {
+        int n = SEQUENCE.get();
+        mockMvc.perform(post("/api/v1/accounts/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + bulkRow("STMT-BULK-" + n + "-1", user.getId())
+                                + "," + bulkRow("STMT-BULK-" + n + "-2", user.getId())
+                                + "," + bulkRow("STMT-BULK-" + n + "-1", user.getId())
+                                + "," + bulkRow(first.getAccountNumber(), user.getId())
+                                + "," + bulkRow("STMT-BULK-" + n + "-3", -1L) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status").value(contains("CREATED", "CREATED", "REJECTED", "REJECTED", "REJECTED")))
+                // One user and one account-number lookup for all rows, one insert batch, the summary upsert and update
+                .andExpect(statements(6))
+                .andExpect(roundTrips(5));
+    }
+
+    @Test
+    void getAccountById() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/{id}", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        // Served from the cache the second time
+        mockMvc.perform(get("/api/v1/accounts/{id}", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(0));
+    }
+
+    @Test
+    void getAccountByNumber() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/number/{number}", first.getAccountNumber()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getAccountsByUserId() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getAccountSummary() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/user/{userId}/summary", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getTotalBalance() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/user/{userId}/total-balance", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void creditAccount() throws Exception {
+        mockMvc.perform(put("/api/v1/accounts/{id}/credit", first.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":10.00}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(5))
+                .andExpect(roundTrips(5));
+    }
+
+    @Test
+    void debitAccount() throws Exception {
+        mockMvc.perform(put("/api/v1/accounts/{id}/debit", first.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":10.00}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(5))
+                .andExpect(roundTrips(5));
+    }
+
+    @Test
+    void transfer() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts/transfer").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\":" + first.getId() + ",\"toAccountId\":" + second.getId()
+                                + ",\"amount\":10.00}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(9))
+                .andExpect(roundTrips(8));
+    }
+
+    @Test
+    void transferBatch() throws Exception {
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            batch.append(i > 0 ? "," : "").append("{\"fromAccountId\":").append(first.getId())
+                    .append(",\"toAccountId\":").append(second.getId()).append(",\"amount\":1.00}");
+        }
+        mockMvc.perform(post("/api/v1/accounts/transfers/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(batch.append("]").toString()))
+                .andExpect(status().isOk())
+                // Journal rows and account updates go out in JDBC batches
+                .andExpect(statements(27))
+                .andExpect(roundTrips(7))
+                .andExpect(noRepeatedStatements(5));
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void importUsers() throws Exception {
+        int n = SEQUENCE.get();
+        String csv = "firstName,lastName,email,phoneNumber\n"
+                + "Imported,One,import" + n + "-1@test.com,+1-555-0101\n"
+                + "Imported,Two,import" + n + "-2@test.com,\n"
+                + "Imported,Invalid,not-an-email,\n"
+                + "Imported,Again,IMPORT" + n + "-1@test.com,\n"
+                + "Imported,Existing," + user.getEmail() + ",\n";
+        mockMvc.perform(post("/api/v1/users/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                // One email lookup for the chunk, one insert batch, and the search index reading the new users
+                .andExpect(statements(4))
+                .andExpect(roundTrips(3));
+    }
+
+    @Test
+    void searchUsers() throws Exception {
+        mockMvc.perform(get("/api/v1/users/search").param("q", "statements" + SEQUENCE.get() + "@"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(user.getId()))
+                .andExpect(statements(1));
+    }
+
+    private static String bulkRow(String accountNumber, Long userId) {
+        return "{\"accountName\":\"Bulk account\",\"accountNumber\":\"" + accountNumber
+                + "\",\"accountType\":\"SAVINGS\",\"userId\":" + userId + "}";
+    }
+
+    private Account createAccount(String accountNumber, Account.AccountType type) {
+        Account account = new Account("Statement account", accountNumber, type, user.getId());
+        account.setBalance(Money.of(new BigDecimal("1000.00"), Money.DEFAULT_CURRENCY));
+        return accountService.createAccount(account);
+    }
+}
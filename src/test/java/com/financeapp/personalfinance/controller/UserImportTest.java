@@ -0,0 +1,130 @@
+package com.financeapp.personalfinance.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV import over HTTP: the report counts, the rejected rows it links to, and emails taken by a signup while a chunk
+ * is being imported
+ */
+@SpringBootTest(properties = {
+        // A database of its own: the spied repository makes this a separate context, which re-creates the schema
+        "spring.datasource.url=jdbc:h2:mem:user_import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserImportTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rejectedRowsAreCountedAndCanBeDownloaded() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        String csv = "firstName,lastName,email\n"
+                + "Ada,Lovelace,ada" + n + "@test.com\n"
+                + "Invalid,Email,not-an-email\n"
+                + "Ada,Again,ADA" + n + "@test.com\n"
+                + "Grace,Hopper,grace" + n + "@test.com\n";
+        JsonNode report = importCsv(csv);
+        assertEquals(4, report.get("rowsRead").asLong());
+        assertEquals(2, report.get("imported").asLong());
+        assertEquals(2, report.get("rejected").asLong());
+
+        String location = report.get("rejectedRowsLocation").asText();
+        assertTrue(location.startsWith(UserController.REJECTED_ROWS_PATH));
+        String rejected = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = rejected.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("line,error,firstName,lastName,email", lines.get(0));
+        assertTrue(lines.get(1).startsWith("3,"), lines.get(1));
+        assertTrue(lines.get(1).endsWith(",Invalid,Email,not-an-email"), lines.get(1));
+        assertEquals("4,Duplicate email in the import,Ada,Again,ADA" + n + "@test.com", lines.get(2));
+    }
+
+    @Test
+    void importWithoutRejectedRowsLinksToNothing() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        JsonNode report = importCsv("firstName,lastName,email\nAlan,Turing,alan" + n + "@test.com\n");
+        assertEquals(1, report.get("imported").asLong());
+        assertTrue(report.get("rejectedRowsLocation").isNull());
+    }
+
+    @Test
+    void unknownRejectedRowsAreNotFound() throws Exception {
+        mockMvc.perform(get(UserController.REJECTED_ROWS_PATH + "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(UserController.REJECTED_ROWS_PATH + "..%2Fpasswd"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void emailTakenAfterTheCheckIsRejectedAndTheRestImported() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        String contested = "contested" + n + "@test.com";
+        // A signup commits the email right after the import checked which emails are taken
+        doAnswer(invocation -> {
+            // The repository is an interface proxy: its default answer delegates to the real bean
+            Object existing = mockingDetails(userRepository).getMockCreationSettings().getDefaultAnswer()
+                    .answer(invocation);
+            CompletableFuture.runAsync(() -> userRepository.save(new User("Signed", "Up", contested, null))).join();
+            return existing;
+        }).when(userRepository).findExistingEmails(any());
+        try {
+            JsonNode report = importCsv("firstName,lastName,email\n"
+                    + "First,Row,first" + n + "@test.com\n"
+                    + "Contested,Row," + contested + "\n"
+                    + "Last,Row,last" + n + "@test.com\n");
+            assertEquals(2, report.get("imported").asLong());
+            assertEquals(1, report.get("rejected").asLong());
+        } finally {
+            reset(userRepository);
+        }
+        assertTrue(userRepository.findByEmailIgnoreCase("first" + n + "@test.com").isPresent());
+        assertTrue(userRepository.findByEmailIgnoreCase("last" + n + "@test.com").isPresent());
+        assertEquals("Signed", userRepository.findByEmailIgnoreCase(contested).orElseThrow().getFirstName());
+    }
+
+    private JsonNode importCsv(String csv) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/users/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode report = objectMapper.readTree(body);
+        assertNull(report.get("rejectedRowsFile"));
+        return report;
+    }
+}
@@ -0,0 +1,80 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A credit or debit refreshes the caller's copy of the account and leaves the rest of its persistence context managed
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountBalanceOperationsTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.user("Balance", "Operations"));
+        account = accountRepository.save(TestFixtures.account(user, "OPS", "100.00"));
+    }
+
+    @Test
+    void changesToOtherEntitiesSurviveABalanceUpdate() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User loaded = userRepository.findById(user.getId()).orElseThrow();
+            accountRepository.creditAndGet(account.getId(), 2500).orElseThrow();
+            assertTrue(entityManager.contains(loaded));
+            // Written by dirty checking at commit
+            loaded.setFirstName("Renamed");
+        });
+        assertEquals("Renamed", userRepository.findById(user.getId()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void managedAccountIsRefreshed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Account loaded = accountRepository.findById(account.getId()).orElseThrow();
+            Account debited = accountRepository.debitAndGet(account.getId(), 4000).orElseThrow();
+            assertSame(loaded, debited);
+            assertEquals(6000, loaded.getBalanceMinorUnits());
+        });
+        assertEquals(6000, accountRepository.findById(account.getId()).orElseThrow().getBalanceMinorUnits());
+    }
+
+    @Test
+    void refusedDebitLeavesTheManagedAccountAlone() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Account loaded = accountRepository.findById(account.getId()).orElseThrow();
+            assertTrue(accountRepository.debitAndGet(account.getId(), 20000).isEmpty());
+            assertTrue(entityManager.contains(loaded));
+            assertEquals(10000, loaded.getBalanceMinorUnits());
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package com.financeapp.personalfinance.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for the SQL behind each account, user and journal repository query on PostgreSQL, with the
+ * schema built by the Flyway migrations and tables large enough that the planner prefers an index whenever
+ * a usable one exists. A sequential scan in any plan fails the test, so a dropped or mismatched index
+ * shows up here. Skipped when Docker is not available.
+ * <p>
+ * Queries that read the whole table by design (findAll, streamAllOrderById, count, getAccountCountByType,
+ * findByAccountType) are not listed. Each branch of the user search is listed on its own, with a fragment rare enough
+ * that reading the index beats scanning until the LIMIT is reached.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.financeapp.personalfinance=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final int USERS = 20_000;
+    private static final int ACCOUNTS = 100_000;
+    private static final int TRANSACTIONS = 200_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, created_at, updated_at) " +
+                "SELECT 'First' || g, 'Last' || g, 'User' || g || '@Example.com', now(), now() " +
+                "FROM generate_series(1, ?) g", USERS);
+        // Creation and last-update times spread over two years and one year, balances over 0.00 - 999.99
+        jdbcTemplate.update("INSERT INTO accounts (account_name, account_number, account_type, balance, currency, " +
+                "user_id, created_at, updated_at) " +
+                "SELECT 'Account ' || g, 'ACC-' || g, " +
+                "(ARRAY['CHECKING', 'SAVINGS', 'CREDIT_CARD', 'INVESTMENT'])[1 + g % 4], (g % 100000) / 100.0, 'USD', " +
+                "1 + g % ?, now() - (g % 730) * INTERVAL '1 day', now() - (g % 365) * INTERVAL '1 day' " +
+                "FROM generate_series(1, ?) g", USERS, ACCOUNTS);
+        // Journal rows in every monthly partition and the default one: an empty partition is always scanned sequentially
+        jdbcTemplate.update("INSERT INTO transactions (id, account_id, transaction_type, amount, created_at) " +
+                "SELECT g, 1 + g % ?, 'CREDIT', 1.00, date_trunc('month', now()) + (g % 14) * INTERVAL '1 month' " +
+                "FROM generate_series(1, ?) g", ACCOUNTS, TRANSACTIONS);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE accounts");
+        jdbcTemplate.execute("ANALYZE transactions");
+    }
+
+    // Parameters are inlined with values typical for each query
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("AccountRepository.findByAccountNumber",
+                        "SELECT * FROM accounts WHERE account_number = 'ACC-500'"),
+                Arguments.of("AccountRepository.findByUserId",
+                        "SELECT * FROM accounts WHERE user_id = 42"),
+                Arguments.of("AccountRepository.findByUserIdAndAccountType",
+                        "SELECT * FROM accounts WHERE user_id = 42 AND account_type = 'SAVINGS'"),
+                Arguments.of("AccountRepository.countByUserId",
+                        "SELECT count(*) FROM accounts WHERE user_id = 42"),
+                Arguments.of("AccountRepository.findByUserIdAndCurrency",
+                        "SELECT * FROM accounts WHERE user_id = 42 AND currency = 'USD'"),
+                Arguments.of("AccountRepository.getTotalBalanceByUserId",
+                        "SELECT CAST(COALESCE(SUM(balance), 0) * 100 AS BIGINT) FROM accounts WHERE user_id = 42"),
+                Arguments.of("AccountRepository.getTotalBalanceByUserIdAndAccountType",
+                        "SELECT CAST(COALESCE(SUM(balance), 0) * 100 AS BIGINT) FROM accounts " +
+                                "WHERE user_id = 42 AND account_type = 'SAVINGS'"),
+                Arguments.of("AccountRepository.findByUserIdOrderByBalanceDesc",
+                        "SELECT * FROM accounts WHERE user_id = 42 ORDER BY balance DESC"),
+                Arguments.of("AccountRepository.findAccountsWithLowBalance",
+                        "SELECT * FROM accounts WHERE balance < 5.00 AND account_type <> 'CREDIT_CARD'"),
+                Arguments.of("AccountRepository.findAccountsWithLowBalanceAfter",
+                        "SELECT * FROM accounts WHERE balance < 5.00 AND account_type <> 'CREDIT_CARD' " +
+                                "AND id > 1000 ORDER BY id LIMIT 51"),
+                Arguments.of("AccountRepository.streamLowBalanceCandidates",
+                        "SELECT * FROM accounts WHERE account_type <> 'CREDIT_CARD' " +
+                                "AND (balance < 5.00 OR low_balance_threshold IS NOT NULL)"),
+                Arguments.of("AccountRepository.findRecentAccounts",
+                        "SELECT * FROM accounts WHERE created_at >= now() - INTERVAL '7 day'"),
+                Arguments.of("AccountRepository.findRecentAccountsAfter",
+                        "SELECT * FROM accounts WHERE created_at >= now() - INTERVAL '7 day' AND id > 1000 " +
+                                "ORDER BY id LIMIT 51"),
+                Arguments.of("AccountRepository.findInactiveAccounts",
+                        "SELECT * FROM accounts WHERE updated_at < now() - INTERVAL '360 day'"),
+                Arguments.of("AccountRepository.findInactiveAccountsAfter",
+                        "SELECT * FROM accounts WHERE updated_at < now() - INTERVAL '360 day' AND id > 1000 " +
+                                "ORDER BY id LIMIT 51"),
+                Arguments.of("AccountRepository.findByIdGreaterThanOrderByIdAsc",
+                        "SELECT * FROM accounts WHERE id > 50000 ORDER BY id LIMIT 51"),
+                Arguments.of("AccountRepository.findByAccountTypeAndIdGreaterThanOrderByIdAsc",
+                        "SELECT * FROM accounts WHERE account_type = 'SAVINGS' AND id > 50000 ORDER BY id LIMIT 51"),
+                Arguments.of("AccountRepository.findAllByIdInForUpdate",
+                        "SELECT * FROM accounts WHERE id IN (10, 20, 30, 40) ORDER BY id FOR UPDATE"),
+                Arguments.of("UserRepository.findByEmailIgnoreCase",
+                        "SELECT * FROM users WHERE lower(email) = lower('user42@example.com')"),
+                Arguments.of("UserRepository.existsByEmailIgnoreCase",
+                        "SELECT count(*) > 0 FROM users WHERE lower(email) = lower('user42@example.com')"),
+                Arguments.of("UserRepository.search (first name prefix)",
+                        "SELECT * FROM users WHERE lower(first_name) LIKE 'first42%' ORDER BY lower(first_name) USING ~<~ LIMIT 200"),
+                Arguments.of("UserRepository.search (last name prefix)",
+                        "SELECT * FROM users WHERE lower(last_name) LIKE 'last42%' ORDER BY lower(last_name) USING ~<~ LIMIT 200"),
+                Arguments.of("UserRepository.search (email prefix)",
+                        "SELECT * FROM users WHERE lower(email) LIKE 'user42%' ORDER BY lower(email) USING ~<~ LIMIT 200"),
+                Arguments.of("UserRepository.search (substring)",
+                        "SELECT * FROM users WHERE lower(first_name || ' ' || last_name || ' ' || email) LIKE '%st1234 %' LIMIT 200"),
+                Arguments.of("UserRepository.findByIdGreaterThanOrderByIdAsc",
+                        "SELECT * FROM users WHERE id > 10000 ORDER BY id LIMIT 51"),
+                Arguments.of("TransactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc",
+                        "SELECT * FROM transactions WHERE account_id = 42 AND id < 150000 ORDER BY id DESC LIMIT 51")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryDoesNotScanTableSequentially(String query, String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertFalse(plan.contains("Seq Scan"), () -> query + " uses a sequential scan:\n" + plan);
+    }
+}
@@ -0,0 +1,50 @@
+package com.financeapp.personalfinance.repository;
+
+import com.financeapp.personalfinance.dto.UsersImportedEvent;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Imported rows are indexed by their emails, even when a user with a higher id was indexed first
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserNgramIndexTest {
+
+    @Autowired
+    private UserNgramIndex userNgramIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importedRowCommittedAfterALaterSignupIsIndexed() {
+        // PostgreSQL searches with pg_trgm instead
+        assumeTrue(userNgramIndex.isEnabled());
+        long n = System.nanoTime();
+        // Inserted around the user service, like an import chunk that has not committed yet
+        User imported = userRepository.save(new User("Imported" + n, "Late", "Imported" + n + "@index.test.com",
+                null));
+        // A signup with a higher id, indexed as soon as it commits
+        User signup = userService.createUser(new User("Signup" + n, "Early", "signup" + n + "@index.test.com", null));
+        assertTrue(signup.getId() > imported.getId());
+        assertEquals(List.of(signup.getId()), userNgramIndex.search("signup" + n, 0, 10));
+
+        userNgramIndex.usersImported(new UsersImportedEvent(List.of(imported.getEmail().toLowerCase(Locale.ROOT))));
+        assertEquals(List.of(imported.getId()), userNgramIndex.search("imported" + n, 0, 10));
+    }
+}
@@ -0,0 +1,115 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.dto.AccountCreationResult;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.AccountRepository;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Bulk account creation reports every row, including numbers taken by a concurrent insert after they were checked
+ */
+@SpringBootTest(properties = {
+        // A database of its own: the spied repository makes this a separate context, which re-creates the schema
+        "spring.datasource.url=jdbc:h2:mem:account_bulk;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class AccountBulkCreationTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @MockitoSpyBean
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.user("Bulk", "Creation"));
+        prefix = TestFixtures.accountNumber("BULK") + "-";
+    }
+
+    @Test
+    void rowsAreReportedInRequestOrder() {
+        String existing = accountService.createAccount(account(prefix + "EXISTING", user.getId())).getAccountNumber();
+        List<AccountCreationResult> results = accountService.createAccounts(List.of(
+                account(prefix + "1", user.getId()),
+                account(prefix + "1", user.getId()),
+                account(existing, user.getId()),
+                account(prefix + "2", -1L),
+                account(prefix + "3", user.getId())));
+
+        assertCreated(results.get(0));
+        assertRejected(results.get(1), "Account with this account number already exists");
+        assertRejected(results.get(2), "Account with this account number already exists");
+        assertRejected(results.get(3), "User not found with id: -1");
+        assertCreated(results.get(4));
+        assertEquals(3, accountService.getAccountsByUserId(user.getId()).size());
+    }
+
+    @Test
+    void numberTakenAfterTheCheckIsRejectedAndTheRestCreated() {
+        String contested = prefix + "CONTESTED";
+        // Another request commits the number right after the bulk request looked it up
+        doAnswer(invocation -> {
+            // The repository is an interface proxy: its default answer delegates to the real bean
+            Object taken = mockingDetails(accountRepository).getMockCreationSettings().getDefaultAnswer()
+                    .answer(invocation);
+            CompletableFuture.runAsync(() -> accountService.createAccount(account(contested, user.getId()))).join();
+            return taken;
+        }).when(accountRepository).findExistingAccountNumbers(any());
+        List<AccountCreationResult> results;
+        try {
+            results = accountService.createAccounts(List.of(
+                    account(prefix + "1", user.getId()),
+                    account(contested, user.getId()),
+                    account(prefix + "2", user.getId())));
+        } finally {
+            reset(accountRepository);
+        }
+
+        assertCreated(results.get(0));
+        assertRejected(results.get(1), "Account with this account number already exists");
+        assertCreated(results.get(2));
+        // The summary counts the concurrent account, not the rejected row
+        assertEquals(3L, accountService.getAccountSummary(user.getId()).getTotalAccounts());
+    }
+
+    private static void assertCreated(AccountCreationResult result) {
+        assertEquals(AccountCreationResult.Status.CREATED, result.getStatus(), result::getMessage);
+        assertNotNull(result.getAccountId());
+    }
+
+    private static void assertRejected(AccountCreationResult result, String message) {
+        assertEquals(AccountCreationResult.Status.REJECTED, result.getStatus());
+        assertEquals(message, result.getMessage());
+        assertNull(result.getAccountId());
+    }
+
+    private static Account account(String accountNumber, Long userId) {
+        return new Account("Bulk account", accountNumber, Account.AccountType.CHECKING, userId);
+    }
+}
@@ -0,0 +1,67 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A lookup that read an account before a concurrent change committed does not leave the old balance in the cache
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountCacheTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(TestFixtures.user("Cache", "Race"));
+        account = accountService.createAccount(TestFixtures.account(user, "CACHE", Account.AccountType.SAVINGS, "0.00"));
+    }
+
+    @Test
+    void lookupCommittingAfterAChangeDoesNotCacheTheOldRow() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Reads 0.00 and queues the cache put for this transaction's commit
+            assertEquals(new BigDecimal("0.00"), balance());
+            // A credit commits (and evicts) before the lookup's transaction does
+            CompletableFuture.runAsync(() -> accountService.creditAccount(account.getId(), new BigDecimal("25.00")))
+                    .join();
+        });
+        assertEquals(new BigDecimal("25.00"), balance());
+    }
+
+    @Test
+    void lookupIsCachedUntilTheNextChange() {
+        assertEquals(new BigDecimal("0.00"), balance());
+        accountService.creditAccount(account.getId(), new BigDecimal("10.00"));
+        assertEquals(new BigDecimal("10.00"), balance());
+        assertEquals(new BigDecimal("10.00"), balance());
+    }
+
+    private BigDecimal balance() {
+        return accountService.getAccountById(account.getId()).orElseThrow().getBalance().toBigDecimal();
+    }
+}
@@ -0,0 +1,123 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.dto.AccountSummaryDto;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserAccountSummaryRepository;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The per-user summary row follows every balance change, is written only when the transaction commits,
+ * and matches a rebuild from the accounts table
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountSummaryMaintainerTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountSummaryMaintainer accountSummaries;
+
+    @Autowired
+    private UserAccountSummaryRepository summaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.user("Summary", "Maintainer"));
+    }
+
+    @Test
+    void summaryFollowsEveryBalanceChange() {
+        Account low = createAccount("10.00");
+        Account high = createAccount("90.00");
+        assertSummary(2, "100.00", "50.00", "90.00", "10.00");
+
+        // The minimum moves up and has to be found again
+        accountService.creditAccount(low.getId(), new BigDecimal("30.00"));
+        assertSummary(2, "130.00", "65.00", "90.00", "40.00");
+
+        // The maximum moves down and has to be found again
+        accountService.debitAccount(high.getId(), new BigDecimal("70.00"));
+        assertSummary(2, "60.00", "30.00", "40.00", "20.00");
+
+        accountService.transferBetweenAccounts(low.getId(), high.getId(), new BigDecimal("40.00"));
+        assertSummary(2, "60.00", "30.00", "60.00", "0.00");
+
+        accountService.updateBalance(high.getId(), new BigDecimal("25.00"));
+        assertSummary(2, "25.00", "12.50", "25.00", "0.00");
+
+        accountService.deleteAccount(low.getId());
+        assertSummary(1, "25.00", "25.00", "25.00", "25.00");
+        assertEquals(0, new BigDecimal("25.00").compareTo(accountService.getTotalBalanceByUserId(user.getId())));
+    }
+
+    @Test
+    void changesAreWrittenWhenTheTransactionCommits() {
+        Account account = createAccount("10.00");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            accountService.creditAccount(account.getId(), new BigDecimal("5.00"));
+            // Collected for the commit, so the row still holds the committed total
+            assertEquals(1000, summaryRepository.findById(user.getId()).orElseThrow().getTotalBalance());
+        });
+        assertSummary(1, "15.00", "15.00", "15.00", "15.00");
+
+        transaction.executeWithoutResult(status -> {
+            accountService.creditAccount(account.getId(), new BigDecimal("5.00"));
+            status.setRollbackOnly();
+        });
+        assertSummary(1, "15.00", "15.00", "15.00", "15.00");
+    }
+
+    @Test
+    void rebuildMatchesTheMaintainedRow() {
+        Account first = createAccount("12.34");
+        createAccount("56.78");
+        accountService.debitAccount(first.getId(), new BigDecimal("2.34"));
+        AccountSummaryDto maintained = accountService.getAccountSummary(user.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> accountSummaries.rebuildAll());
+        AccountSummaryDto rebuilt = accountService.getAccountSummary(user.getId());
+        assertEquals(maintained.getTotalAccounts(), rebuilt.getTotalAccounts());
+        assertEquals(maintained.getTotalBalance(), rebuilt.getTotalBalance());
+        assertEquals(maintained.getAverageBalance(), rebuilt.getAverageBalance());
+        assertEquals(maintained.getMaxBalance(), rebuilt.getMaxBalance());
+        assertEquals(maintained.getMinBalance(), rebuilt.getMinBalance());
+    }
+
+    private void assertSummary(long accounts, String total, String average, String max, String min) {
+        AccountSummaryDto summary = accountService.getAccountSummary(user.getId());
+        assertEquals(accounts, summary.getTotalAccounts());
+        assertEquals(new BigDecimal(total), summary.getTotalBalance());
+        assertEquals(new BigDecimal(average), summary.getAverageBalance());
+        assertEquals(new BigDecimal(max), summary.getMaxBalance());
+        assertEquals(new BigDecimal(min), summary.getMinBalance());
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(TestFixtures.account(user, "SUM", Account.AccountType.SAVINGS, balance));
+    }
+}
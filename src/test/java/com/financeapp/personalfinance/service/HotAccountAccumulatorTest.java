@@ -0,0 +1,146 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.Transaction;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.AccountRepository;
+import com.financeapp.personalfinance.repository.TransactionRepository;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Credits to a hot account wait in the accumulator until a flush or a debit drains them into the row, a
+ * drain that rolls back puts them back, and credits journaled but never flushed are applied at startup
+ */
+@SpringBootTest(properties = {
+        // A database of its own, so the first account created here gets the hot id
+        "spring.datasource.url=jdbc:h2:mem:hot_accounts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "app.accounts.hot.ids=1",
+        // Flushed by the tests only
+        "app.accounts.hot.flush-interval=3600000"
+})
+@ActiveProfiles("test")
+class HotAccountAccumulatorTest {
+
+    private static final long HOT_ACCOUNT_ID = 1L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountAccumulator hotAccounts;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        if (!accountRepository.existsById(HOT_ACCOUNT_ID)) {
+            User user = userRepository.save(new User("Hot", "Account", "hot@test.com", null));
+            Account account = new Account("Settlement", "HOT-1", Account.AccountType.CHECKING, user.getId());
+            assertEquals(HOT_ACCOUNT_ID, accountService.createAccount(account).getId());
+        }
+        // Start every test from an empty accumulator
+        hotAccounts.flush();
+        userId = accountRepository.findById(HOT_ACCOUNT_ID).orElseThrow().getUserId();
+    }
+
+    @Test
+    void creditsAreReportedAtOnceAndReachTheRowOnFlush() {
+        long row = rowBalance();
+        accountService.creditAccount(HOT_ACCOUNT_ID, new BigDecimal("10.00"));
+        Account credited = accountService.creditAccount(HOT_ACCOUNT_ID, new BigDecimal("5.50"));
+
+        assertEquals(row + 1550, credited.getBalanceMinorUnits());
+        assertEquals(row, rowBalance());
+        assertEquals(1550, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+        assertEquals(row + 1550, reportedBalance());
+        assertEquals(Money.toDecimal(row + 1550), accountService.getTotalBalanceByUserId(userId));
+
+        hotAccounts.flush();
+        assertEquals(row + 1550, rowBalance());
+        assertEquals(0, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+        assertEquals(Money.toDecimal(row + 1550), accountService.getTotalBalanceByUserId(userId));
+    }
+
+    @Test
+    void debitCoveredByPendingCreditsDrainsThem() {
+        long row = rowBalance();
+        accountService.creditAccount(HOT_ACCOUNT_ID, new BigDecimal("20.00"));
+
+        Account debited = accountService.debitAccount(HOT_ACCOUNT_ID, Money.toDecimal(row + 1500));
+        assertEquals(500, debited.getBalanceMinorUnits());
+        assertEquals(500, rowBalance());
+        assertEquals(0, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+    }
+
+    @Test
+    void rolledBackDrainRestoresThePendingCredits() {
+        long row = rowBalance();
+        accountService.creditAccount(HOT_ACCOUNT_ID, new BigDecimal("30.00"));
+
+        // More than the row and the pending credits together: drained, then rolled back with the debit
+        assertThrows(IllegalStateException.class, () -> accountService.debitAccount(HOT_ACCOUNT_ID,
+                Money.toDecimal(row + 3001)));
+        assertEquals(row, rowBalance());
+        assertEquals(3000, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            hotAccounts.drainIntoCurrentTransaction(HOT_ACCOUNT_ID);
+            assertEquals(0, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+            status.setRollbackOnly();
+        });
+        assertEquals(row, rowBalance());
+        assertEquals(3000, hotAccounts.pendingAmount(HOT_ACCOUNT_ID));
+        assertEquals(row + 3000, reportedBalance());
+    }
+
+    @Test
+    void journaledCreditsThatWereNeverFlushedAreAppliedAtStartup() {
+        long row = rowBalance();
+        accountService.creditAccount(HOT_ACCOUNT_ID, new BigDecimal("5.00"));
+        hotAccounts.flush();
+        // Journaled and committed, but the process stopped before the credit reached the accumulator
+        transactionRepository.save(new Transaction(HOT_ACCOUNT_ID, Transaction.TransactionType.CREDIT,
+                new BigDecimal("12.34"), null, null));
+
+        hotAccounts.recoverUnflushedCredits();
+        assertEquals(row + 1734, rowBalance());
+        assertEquals(Money.toDecimal(row + 1734), accountService.getTotalBalanceByUserId(userId));
+
+        // Applied once: a second start finds nothing missing
+        hotAccounts.recoverUnflushedCredits();
+        assertEquals(row + 1734, rowBalance());
+    }
+
+    private long rowBalance() {
+        return accountRepository.findById(HOT_ACCOUNT_ID).orElseThrow().getBalanceMinorUnits();
+    }
+
+    private long reportedBalance() {
+        return accountService.getAccountById(HOT_ACCOUNT_ID).orElseThrow().getBalanceMinorUnits();
+    }
+}
@@ -0,0 +1,78 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Journal partitions are created ahead of time on PostgreSQL, including for months whose rows already landed in
+ * the default partition. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "app.journal.partitions.months-ahead=13",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.financeapp.personalfinance=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class JournalPartitionMaintainerTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JournalPartitionMaintainer maintainer;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void partitionsExistUpToMonthsAheadAfterStartup() {
+        // The migration covers twelve months ahead, startup maintenance the thirteenth
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass(" + partitionName(13) + ")::TEXT", String.class));
+        assertEquals(0, maintainer.createPartitions());
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionMoveIntoTheNewPartition() {
+        jdbcTemplate.update("INSERT INTO transactions (id, account_id, transaction_type, amount, created_at) " +
+                "VALUES (-15, 1, 'CREDIT', 1.00, date_trunc('month', now()) + INTERVAL '15 month' + INTERVAL '1 day')");
+        assertEquals("transactions_default", partitionOf(-15));
+
+        int created = new TransactionTemplate(transactionManager)
+                .execute(status -> transactionRepository.createPartitions(15));
+        // Months 14 and 15
+        assertEquals(2, created);
+        assertEquals(jdbcTemplate.queryForObject("SELECT " + partitionName(15), String.class), partitionOf(-15));
+        assertEquals(0, (int) new TransactionTemplate(transactionManager)
+                .execute(status -> transactionRepository.createPartitions(15)));
+    }
+
+    private String partitionOf(long transactionId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::TEXT FROM transactions WHERE id = ?",
+                String.class, transactionId);
+    }
+
+    // SQL expression for the name of the partition the given number of months from now
+    private static String partitionName(int months) {
+        return "'transactions_' || to_char(date_trunc('month', now()) + INTERVAL '" + months + " month', 'YYYY_MM')";
+    }
+}
@@ -0,0 +1,135 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.dto.KeysetPage;
+import com.financeapp.personalfinance.dto.LowBalanceEvent;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The low-balance report without a threshold follows committed balance changes through the in-memory index,
+ * and accounts crossing their threshold publish events
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class LowBalanceIndexTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LowBalanceIndex lowBalances;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.user("Low", "Balance"));
+        assertTrue(lowBalances.isReady());
+    }
+
+    @Test
+    void balanceChangesMoveAccountsInAndOutOfTheReport() {
+        // Below the global threshold of 100.00
+        Account account = createAccount("50.00", null);
+        assertReported(account, true);
+
+        accountService.creditAccount(account.getId(), new BigDecimal("60.00"));
+        assertReported(account, false);
+
+        accountService.debitAccount(account.getId(), new BigDecimal("20.00"));
+        assertReported(account, true);
+
+        // Creating an account below its threshold is not a crossing
+        List<LowBalanceEvent> crossings = crossings(account);
+        assertEquals(2, crossings.size());
+        assertEquals(new BigDecimal("110.00"), crossings.get(0).getBalance());
+        assertFalse(crossings.get(0).isLow());
+        assertEquals(new BigDecimal("90.00"), crossings.get(1).getBalance());
+        assertTrue(crossings.get(1).isLow());
+    }
+
+    @Test
+    void accountThresholdReplacesTheGlobalOne() {
+        Account account = createAccount("150.00", new BigDecimal("200.00"));
+        assertReported(account, true);
+
+        accountService.creditAccount(account.getId(), new BigDecimal("50.00"));
+        assertReported(account, false);
+        assertEquals(new BigDecimal("200.00"), crossings(account).get(0).getThreshold());
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        Account account = createAccount("120.00", null);
+        // The transfer debits the source first, then fails on the missing destination and rolls back
+        assertThrows(RuntimeException.class,
+                () -> accountService.transferBetweenAccounts(account.getId(), -1L, new BigDecimal("30.00")));
+        assertReported(account, false);
+        assertTrue(crossings(account).isEmpty());
+    }
+
+    @Test
+    void rowsChangedAroundTheServiceAreLeftOutWithoutEndingTheListing() {
+        Account raised = createAccount("10.00", null);
+        Account deleted = createAccount("20.00", null);
+        Account low = createAccount("30.00", null);
+        // As another instance would, without telling this index
+        jdbcTemplate.update("UPDATE accounts SET balance = 500.00 WHERE id = ?", raised.getId());
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", deleted.getId());
+
+        KeysetPage<Account> page = accountService.getAccountsWithLowBalancePage(null, raised.getId() - 1, 2);
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(deleted.getId(), page.getNextCursor());
+        page = accountService.getAccountsWithLowBalancePage(null, page.getNextCursor(), 1);
+        assertEquals(List.of(low.getId()), page.getItems().stream().map(Account::getId).toList());
+
+        // The missing row is dropped from the index, the changed one waits for the resync
+        assertEquals(List.of(raised.getId(), low.getId()), lowBalances.page(raised.getId() - 1, 2));
+    }
+
+    // The report page starting at the account holds it exactly when the account is low
+    private void assertReported(Account account, boolean reported) {
+        List<Account> page = accountService.getAccountsWithLowBalancePage(null, account.getId() - 1, 1).getItems();
+        assertEquals(reported, !page.isEmpty() && page.get(0).getId().equals(account.getId()));
+    }
+
+    private List<LowBalanceEvent> crossings(Account account) {
+        return events.stream(LowBalanceEvent.class)
+                .filter(event -> event.getAccountId().equals(account.getId()))
+                .toList();
+    }
+
+    private Account createAccount(String balance, BigDecimal lowBalanceThreshold) {
+        Account account = TestFixtures.account(user, "LOW", balance);
+        account.setLowBalanceThreshold(lowBalanceThreshold);
+        return accountService.createAccount(account);
+    }
+}
@@ -0,0 +1,121 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.TestFixtures;
+import com.financeapp.personalfinance.dto.TransferInstruction;
+import com.financeapp.personalfinance.dto.TransferResult;
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.Transaction;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Batch transfers are applied in request order in one transaction; a failed item is reported and changes nothing
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferBatchTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.user("Batch", "Transfer"));
+    }
+
+    @Test
+    void transfersAreAppliedInOrderAndFailuresReportedPerItem() {
+        Account payroll = createAccount("100.00");
+        Account alice = createAccount("0.00");
+        Account bob = createAccount("0.00");
+
+        List<TransferResult> results = accountService.transferBatch(List.of(
+                transfer(payroll, alice, "60.00"),
+                // Only 40.00 left after the first transfer
+                transfer(payroll, bob, "60.00"),
+                transfer(alice, bob, "10.00"),
+                new TransferInstruction(payroll.getId(), -1L, new BigDecimal("1.00")),
+                transfer(payroll, bob, "0.00"),
+                transfer(payroll, bob, "40.00")));
+
+        assertEquals(6, results.size());
+        assertCompleted(results.get(0), 0);
+        assertFailed(results.get(1), 1, "Insufficient balance in source account");
+        assertCompleted(results.get(2), 2);
+        assertFailed(results.get(3), 3, "Destination account not found with id: -1");
+        assertFailed(results.get(4), 4, "Transfer amount must be positive");
+        assertCompleted(results.get(5), 5);
+
+        assertBalance(payroll, "0.00");
+        assertBalance(alice, "50.00");
+        assertBalance(bob, "50.00");
+        // Money moved between the user's own accounts
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountService.getTotalBalanceByUserId(user.getId())));
+        // A journal row on each side of every completed transfer
+        assertEquals(List.of(Transaction.TransactionType.TRANSFER_OUT, Transaction.TransactionType.TRANSFER_OUT),
+                journal(payroll));
+        assertEquals(List.of(Transaction.TransactionType.TRANSFER_IN, Transaction.TransactionType.TRANSFER_IN),
+                journal(bob));
+    }
+
+    @Test
+    void emptyAndOversizedBatchesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.transferBatch(List.of()));
+
+        Account from = createAccount("10.00");
+        Account to = createAccount("0.00");
+        List<TransferInstruction> tooMany = new ArrayList<>(
+                Collections.nCopies(AccountService.MAX_BATCH_TRANSFERS + 1, transfer(from, to, "0.01")));
+        assertThrows(IllegalArgumentException.class, () -> accountService.transferBatch(tooMany));
+        assertBalance(from, "10.00");
+    }
+
+    private List<Transaction.TransactionType> journal(Account account) {
+        return accountService.getTransactionsPage(account.getId(), null, 10).getItems().stream()
+                .map(Transaction::getTransactionType)
+                .toList();
+    }
+
+    private void assertBalance(Account account, String balance) {
+        assertEquals(Money.toMinorUnits(new BigDecimal(balance)),
+                accountService.getAccountById(account.getId()).orElseThrow().getBalanceMinorUnits());
+    }
+
+    private static void assertCompleted(TransferResult result, int index) {
+        assertEquals(index, result.getIndex());
+        assertEquals(TransferResult.Status.COMPLETED, result.getStatus(), result.getMessage());
+    }
+
+    private static void assertFailed(TransferResult result, int index, String message) {
+        assertEquals(index, result.getIndex());
+        assertEquals(TransferResult.Status.FAILED, result.getStatus());
+        assertEquals(message, result.getMessage());
+    }
+
+    private static TransferInstruction transfer(Account from, Account to, String amount) {
+        return new TransferInstruction(from.getId(), to.getId(), new BigDecimal(amount));
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(TestFixtures.account(user, "BATCH", balance));
+    }
+}
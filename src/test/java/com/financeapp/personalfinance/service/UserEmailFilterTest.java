@@ -0,0 +1,148 @@
+package com.financeapp.personalfinance.service;
+
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Signups consult the email filter before the database: a miss goes straight to the insert, a hit is checked,
+ * and the unique index still catches emails the filter has not seen
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserEmailFilterTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserEmailFilter userEmailFilter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void newEmailIsInsertedWithoutADatabaseCheck() {
+        String email = email("new");
+        double misses = checks("absent");
+        double matches = checks("maybe-present");
+
+        User user = userService.createUser(new User("New", "Signup", email, null));
+        assertEquals(email, userRepository.findById(user.getId()).orElseThrow().getEmail());
+        assertEquals(misses + 1, checks("absent"));
+        assertEquals(matches, checks("maybe-present"));
+        // Added once the insert committed
+        assertTrue(userEmailFilter.mightContain(email.toUpperCase()));
+    }
+
+    @Test
+    void possibleMatchIsCheckedAgainstTheDatabase() {
+        // Like the email of a deleted user, which the filter cannot forget
+        String email = email("deleted");
+        userEmailFilter.add(email);
+        double matches = checks("maybe-present");
+
+        User user = userService.createUser(new User("Reused", "Email", email, null));
+        assertEquals(matches + 1, checks("maybe-present"));
+        assertTrue(userRepository.existsById(user.getId()));
+
+        IllegalArgumentException taken = assertThrows(IllegalArgumentException.class,
+                () -> userService.createUser(new User("Second", "Signup", email, null)));
+        assertEquals("User with this email already exists", taken.getMessage());
+    }
+
+    @Test
+    void emailTheFilterHasNotSeenIsRejectedByTheUniqueIndex() {
+        // Inserted around the user service, as another instance would
+        String email = email("unseen");
+        userRepository.save(new User("Other", "Instance", email, null));
+        assertFalse(userEmailFilter.mightContain(email));
+
+        IllegalArgumentException taken = assertThrows(IllegalArgumentException.class,
+                () -> userService.createUser(new User("Late", "Signup", email, null)));
+        assertEquals("User with this email already exists", taken.getMessage());
+    }
+
+    @Test
+    void updateToAnEmailTheFilterHasNotSeenIsRejectedByTheUniqueIndex() {
+        String email = email("unseen-update");
+        userRepository.save(new User("Other", "Instance", email, null));
+        User user = userService.createUser(new User("Changing", "Email", email("before-update"), null));
+
+        IllegalArgumentException taken = assertThrows(IllegalArgumentException.class,
+                () -> userService.updateUser(user.getId(), new User("Changing", "Email", email, null)));
+        assertEquals("User with this email already exists", taken.getMessage());
+        assertEquals(user.getEmail(), userRepository.findById(user.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void changingOnlyTheCaseOfOnesOwnEmailIsAllowed() {
+        String email = email("own-case");
+        User user = userService.createUser(new User("Own", "Email", email, null));
+
+        userService.updateUser(user.getId(), new User("Own", "Email", email.toUpperCase(), null));
+        assertEquals(email.toUpperCase(), userRepository.findById(user.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void signupsDuringARebuildAreNotLost() {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<String> emails = new ArrayList<>();
+        CompletableFuture<Void> rebuilds = CompletableFuture.runAsync(() -> {
+            while (writing.get()) {
+                userEmailFilter.rebuild();
+            }
+        });
+        List<CompletableFuture<List<String>>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            writers.add(CompletableFuture.supplyAsync(() -> {
+                List<String> created = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    String email = email("rebuild");
+                    userService.createUser(new User("Concurrent", "Signup", email, null));
+                    created.add(email);
+                }
+                return created;
+            }));
+        }
+        try {
+            writers.forEach(writer -> emails.addAll(writer.join()));
+        } finally {
+            writing.set(false);
+            rebuilds.join();
+        }
+
+        assertEquals(200, emails.size());
+        for (String email : emails) {
+            assertTrue(userEmailFilter.mightContain(email), email);
+        }
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("app.users.email-filter.checks").tag("result", result).counter().count();
+    }
+
+    private static String email(String prefix) {
+        return prefix + SEQUENCE.incrementAndGet() + "-" + System.nanoTime() + "@filter.test.com";
+    }
+}
@@ -0,0 +1,135 @@
+package com.financeapp.personalfinance.stress;
+
+import com.financeapp.personalfinance.model.Account;
+import com.financeapp.personalfinance.model.Money;
+import com.financeapp.personalfinance.model.User;
+import com.financeapp.personalfinance.repository.AccountRepository;
+import com.financeapp.personalfinance.repository.TransactionRepository;
+import com.financeapp.personalfinance.repository.UserRepository;
+import com.financeapp.personalfinance.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers the balance mutations of AccountService from many threads at a handful of accounts.
+ * Every run checks that no update was lost (exact final balances) and that transfers conserve money,
+ * and prints throughput and p99 latency so concurrency changes to the service can be compared.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountServiceConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final int ACCOUNTS = 4;
+    private static final long STARTING_BALANCE_CENTS = 100_000_000L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountIds.clear();
+
+        User user = userRepository.save(new User("Stress", "Tester", "stress@test.com", null));
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Stress " + i, "STRESS-" + i, Account.AccountType.CHECKING, user.getId());
+            account.setBalance(Money.ofMinor(STARTING_BALANCE_CENTS, Money.DEFAULT_CURRENCY));
+            accountIds.add(accountRepository.save(account).getId());
+        }
+    }
+
+    @Test
+    void concurrentCreditsAreNotLost() throws InterruptedException {
+        StressReport report = ConcurrencyStressHarness.run("credit", THREADS, OPERATIONS_PER_THREAD,
+                (thread, i) -> accountService.creditAccount(accountFor(thread, i), cents(100)));
+
+        assertEquals(0, report.getFailures(), () -> "Credits failed: " + report.getErrors());
+        long perAccount = (long) THREADS * OPERATIONS_PER_THREAD / ACCOUNTS;
+        for (Long accountId : accountIds) {
+            assertBalance(accountId, STARTING_BALANCE_CENTS + perAccount * 100);
+        }
+    }
+
+    @Test
+    void concurrentDebitsAreNotLost() throws InterruptedException {
+        StressReport report = ConcurrencyStressHarness.run("debit", THREADS, OPERATIONS_PER_THREAD,
+                (thread, i) -> accountService.debitAccount(accountFor(thread, i), cents(100)));
+
+        assertEquals(0, report.getFailures(), () -> "Debits failed: " + report.getErrors());
+        long perAccount = (long) THREADS * OPERATIONS_PER_THREAD / ACCOUNTS;
+        for (Long accountId : accountIds) {
+            assertBalance(accountId, STARTING_BALANCE_CENTS - perAccount * 100);
+        }
+    }
+
+    @Test
+    void concurrentTransfersConserveMoney() throws InterruptedException {
+        // Expected balances move only when a transfer reports success
+        AtomicLongArray expected = new AtomicLongArray(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            expected.set(i, STARTING_BALANCE_CENTS);
+        }
+
+        StressReport report = ConcurrencyStressHarness.run("transfer", THREADS, OPERATIONS_PER_THREAD,
+                (thread, i) -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    long amount = 1 + random.nextInt(10_000);
+                    accountService.transferBetweenAccounts(accountIds.get(from), accountIds.get(to), cents(amount));
+                    expected.addAndGet(from, -amount);
+                    expected.addAndGet(to, amount);
+                });
+
+        assertEquals(0, report.getFailures(), () -> "Transfers failed: " + report.getErrors());
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertBalance(accountIds.get(i), expected.get(i));
+            total += balanceCents(accountIds.get(i));
+        }
+        assertEquals(STARTING_BALANCE_CENTS * ACCOUNTS, total, "Transfers must not create or destroy money");
+    }
+
+    // Spread operations evenly so every account receives the same number of calls
+    private Long accountFor(int thread, int iteration) {
+        return accountIds.get((thread * OPERATIONS_PER_THREAD + iteration) % ACCOUNTS);
+    }
+
+    private void assertBalance(Long accountId, long expectedCents) {
+        assertEquals(expectedCents, balanceCents(accountId), "Balance of account " + accountId);
+    }
+
+    private long balanceCents(Long accountId) {
+        return accountRepository.findById(accountId).orElseThrow().getBalanceMinorUnits();
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,85 @@
+package com.financeapp.personalfinance.stress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires the same operation from many threads at once and measures it.
+ * All threads wait on a start gate so the operations really overlap; every call is timed
+ * individually so the report can show tail latency, not just throughput.
+ */
+public final class ConcurrencyStressHarness {
+
+    private static final int MAX_RECORDED_ERRORS = 10;
+
+    /**
+     * One unit of work; throwing counts the call as failed
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run(int threadIndex, int iteration) throws Exception;
+    }
+
+    private ConcurrencyStressHarness() {
+    }
+
+    public static StressReport run(String name, int threads, int operationsPerThread, Operation operation)
+            throws InterruptedException {
+        long[][] latencies = new long[threads][operationsPerThread];
+        AtomicLong failures = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                int threadIndex = t;
+                executor.execute(() -> {
+                    ready.countDown();
+                    try {
+                        start.await();
+                        for (int i = 0; i < operationsPerThread; i++) {
+                            long begin = System.nanoTime();
+                            try {
+                                operation.run(threadIndex, i);
+                            } catch (Exception e) {
+                                failures.incrementAndGet();
+                                if (errors.size() < MAX_RECORDED_ERRORS) {
+                                    errors.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+                                }
+                            }
+                            latencies[threadIndex][i] = System.nanoTime() - begin;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsed = System.nanoTime() - begin;
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            StressReport report = new StressReport(name, threads, all, failures.get(), elapsed, List.copyOf(errors));
+            System.out.println(report);
+            return report;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.financeapp.personalfinance.stress;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of one stress run: counts, throughput and latency percentiles
+ */
+public class StressReport {
+
+    private final String name;
+    private final int threads;
+    private final long operations;
+    private final long failures;
+    private final long elapsedNanos;
+    private final long[] sortedLatencies;
+    private final List<String> errors;
+
+    StressReport(String name, int threads, long[] sortedLatencies, long failures, long elapsedNanos,
+                 List<String> errors) {
+        this.name = name;
+        this.threads = threads;
+        this.operations = sortedLatencies.length;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedLatencies = sortedLatencies;
+        this.errors = errors;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public double getThroughputPerSecond() {
+        return operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in microseconds, nearest-rank method
+     */
+    public long percentileMicros(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+        int index = Math.min(Math.max(rank - 1, 0), sortedLatencies.length - 1);
+        return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[index]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[stress] %s: %d ops on %d threads in %d ms, %d failed | %.0f ops/s | " +
+                        "p50=%dus p99=%dus max=%dus%s",
+                name, operations, threads, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failures,
+                getThroughputPerSecond(), percentileMicros(50), percentileMicros(99), percentileMicros(100),
+                errors.isEmpty() ? "" : " | first errors: " + errors);
+    }
+}